@@ -0,0 +1,36 @@
+package kepler;
+
+import java.awt.Graphics;
+
+/**
+ * The frames of an animation that are all the same size, such as the star that the satellite orbits
+ */
+interface AnimationFrames {
+    /**
+     * Draws a frame with its top left corner at the given point
+     * @param g     The graphics object used for drawing
+     * @param frame The index of the frame from 0 to size() - 1
+     * @param x     The x-coordinate of the frame's top left corner
+     * @param y     The y-coordinate of the frame's top left corner
+     */
+    void draw(Graphics g, int frame, int x, int y);
+    
+    /**
+     * Returns the number of frames
+     * @return The number of frames
+     */
+    int size();
+    
+    /**
+     * Returns the width of each frame
+     * @return The frame width in pixels
+     */
+    int getFrameWidth();
+    
+    /**
+     * Returns the height of each frame
+     * @return The frame height in pixels
+     */
+    int getFrameHeight();
+    
+}
@@ -0,0 +1,156 @@
+package kepler;
+
+import nikunj.classes.Sound;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads images, fonts and sounds on a small pool of threads so that they are decoded at the same time as each other and as
+ * the window is being set up, instead of one after another on the main thread
+ *
+ * Each asset is returned as a Future that is waited on with await() where the asset is first needed, which also makes
+ * everything that the loading thread did visible to the waiting thread. Every load is recorded on the startup timeline.
+ */
+class AssetLoader {
+    /**
+     * The most threads that assets are loaded on, since decoding is limited by memory bandwidth and the disk past a few threads
+     */
+    static final int MAX_THREADS = 4;
+    
+    /**
+     * The pool that assets are loaded on
+     */
+    private final ExecutorService executor;
+    
+    /**
+     * The timeline that each load is recorded on
+     */
+    private final StartupTimeline timeline;
+    
+    /**
+     * AssetLoader constructor that starts a pool with as many threads as there are available processors, up to MAX_THREADS
+     * @param timeline The timeline that each load is recorded on
+     */
+    AssetLoader(StartupTimeline timeline) {
+        this.timeline = timeline;
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Asset loader " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Starts loading an asset with any task
+     * @param name The name of the asset shown on the startup timeline
+     * @param task Loads and returns the asset
+     * @param <T>  The type of the asset
+     * @return The asset once it is loaded
+     */
+    <T> Future<T> load(String name, Callable<T> task) {
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            }
+            finally {
+                timeline.record(name, start, System.nanoTime());
+            }
+        });
+    }
+    
+    /**
+     * Starts decoding an image and converting it with Runner.getCompatibleImage()
+     * @param resource The path of the image resource
+     * @return The image once it is loaded, which is null if it could not be read
+     */
+    Future<BufferedImage> image(String resource) {
+        return load(resource, () -> Runner.getCompatibleImage(resource));
+    }
+    
+    /**
+     * Starts loading a sprite atlas with SpriteAtlas.load()
+     * @param resource The path of the atlas resource without .png or .txt
+     * @return The atlas once it is loaded
+     */
+    Future<SpriteAtlas> atlas(String resource) {
+        return load(resource, () -> SpriteAtlas.load(resource));
+    }
+    
+    /**
+     * Starts loading a TrueType font
+     * @param resource The path of the font resource
+     * @param size     The size of the returned font
+     * @return The font once it is loaded
+     */
+    Future<Font> font(String resource, float size) {
+        return load(resource, () -> {
+            try(InputStream stream = Runner.getResource(resource).openStream()) {
+                return Font.createFont(Font.TRUETYPE_FONT, stream).deriveFont(size);
+            }
+        });
+    }
+    
+    /**
+     * Starts loading a sound
+     * @param resource The path of the sound resource
+     * @param loop     Whether the sound loops when played
+     * @return The sound once it is loaded
+     */
+    Future<Sound> sound(String resource, boolean loop) {
+        return load(resource, () -> new Sound(Runner.getResource(resource), loop));
+    }
+    
+    /**
+     * Lets the pool's threads end once every asset that was started is loaded, after which no more assets can be started
+     */
+    void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Waits until an asset is loaded and returns it
+     * @param asset The asset returned when it was started
+     * @param <T>   The type of the asset
+     * @return The loaded asset
+     * @throws IOException If the asset could not be loaded, which wraps whatever the load threw if it was not an IOException
+     */
+    static <T> T await(Future<T> asset) throws IOException {
+        boolean interrupted = false;
+        try {
+            while(true) {
+                try {
+                    return asset.get();
+                }
+                catch(InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof IOException)
+                throw (IOException) cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if(cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+        finally {
+            if(interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+    
+}
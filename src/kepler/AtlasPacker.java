@@ -0,0 +1,155 @@
+package kepler;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command-line tool run at build time that packs numbered animation frames into one sprite atlas image along with an index of
+ * where each frame is in it, which SpriteAtlas loads with a single decode
+ *
+ * Each frame is trimmed to the box around its visible pixels and the trimmed frames are packed left to right into rows about as
+ * wide as the atlas is tall, and no wider than MAX_WIDTH. The index is a text file whose first line after the comments holds
+ * the frame width, frame height and number of frames, followed by one line per frame holding its x, y, width and height in the
+ * atlas and the offset of the trimmed box within the untrimmed frame.
+ */
+class AtlasPacker {
+    /**
+     * The widest that the atlas can be in pixels
+     */
+    private static final int MAX_WIDTH = 2048;
+    
+    /**
+     * The number of transparent pixels kept between packed frames
+     */
+    private static final int PADDING = 1;
+    
+    /**
+     * The options that can be passed on the command line
+     */
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java kepler.AtlasPacker --frames=PREFIX --count=N --out=BASE",
+            "  --frames=PREFIX  The path of the frames without their number and .png, such as images/star/star",
+            "  --count=N        The number of frames, which are numbered from 0 to N - 1",
+            "  --out=BASE       The path to write BASE.png and BASE.txt to, such as images/starAtlas");
+    
+    /**
+     * Packs the frames given on the command line into an atlas
+     * @param args The options listed in USAGE
+     */
+    public static void main(String... args) throws IOException {
+        String frames = null, out = null;
+        int count = 0;
+        try {
+            for(String arg : args) {
+                int equals = arg.indexOf('=');
+                String name = equals == -1 ? arg : arg.substring(0, equals);
+                String value = equals == -1 ? "" : arg.substring(equals + 1);
+                switch(name) {
+                    case "--frames":
+                        frames = value;
+                        break;
+                    case "--count":
+                        count = Integer.parseInt(value);
+                        break;
+                    case "--out":
+                        out = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if(frames == null || out == null || count < 1)
+                throw new IllegalArgumentException("The frames, a positive count and the output are all required");
+        }
+        catch(IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        
+        //Reads every frame and finds the box around its visible pixels
+        BufferedImage[] images = new BufferedImage[count];
+        int[][] trims = new int[count][];
+        for(int i = 0; i < count; ++i) {
+            images[i] = ImageIO.read(new File(frames + i + ".png"));
+            if(images[i] == null)
+                throw new IOException("Cannot read " + frames + i + ".png");
+            if(images[i].getWidth() != images[0].getWidth() || images[i].getHeight() != images[0].getHeight())
+                throw new IOException("Every frame has to be the same size as the first");
+            trims[i] = trim(images[i]);
+        }
+        
+        //Aims for a square atlas, so that the last row leaves as little empty space as possible
+        long area = 0;
+        int widest = 0;
+        for(int[] trim : trims) {
+            area += (long) (trim[2] + PADDING) * (trim[3] + PADDING);
+            widest = Math.max(widest, trim[2]);
+        }
+        int rowWidth = Math.min(MAX_WIDTH, Math.max(widest, (int) Math.ceil(Math.sqrt(area))));
+        
+        //Packs the trimmed frames into rows, where each frame's position is stored as its x and y in the atlas
+        int[][] positions = new int[count][2];
+        int x = 0, y = 0, rowHeight = 0, width = 0;
+        for(int i = 0; i < count; ++i) {
+            if(x + trims[i][2] > rowWidth) {
+                x = 0;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            positions[i][0] = x;
+            positions[i][1] = y;
+            x += trims[i][2] + PADDING;
+            rowHeight = Math.max(rowHeight, trims[i][3]);
+            width = Math.max(width, x - PADDING);
+        }
+        int height = y + rowHeight;
+        
+        BufferedImage atlas = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = atlas.createGraphics();
+        for(int i = 0; i < count; ++i) {
+            int[] trim = trims[i];
+            g2d.drawImage(images[i], positions[i][0], positions[i][1], positions[i][0] + trim[2], positions[i][1] + trim[3], trim[0], trim[1], trim[0] + trim[2], trim[1] + trim[3], null);
+        }
+        g2d.dispose();
+        ImageIO.write(atlas, "png", new File(out + ".png"));
+        
+        try(PrintWriter index = new PrintWriter(new File(out + ".txt"), StandardCharsets.US_ASCII.name())) {
+            index.println("# Sprite atlas index written by kepler.AtlasPacker from " + frames + "0.png to " + frames + (count - 1) + ".png");
+            index.println("# frameWidth frameHeight frameCount, then per frame: x y width height offsetX offsetY");
+            index.println(images[0].getWidth() + " " + images[0].getHeight() + " " + count);
+            for(int i = 0; i < count; ++i)
+                index.println(positions[i][0] + " " + positions[i][1] + " " + trims[i][2] + " " + trims[i][3] + " " + trims[i][0] + " " + trims[i][1]);
+        }
+        System.err.printf("Packed %d frames of %dx%d into a %dx%d atlas%n", count, images[0].getWidth(), images[0].getHeight(), atlas.getWidth(), atlas.getHeight());
+    }
+    
+    /**
+     * Finds the smallest box that holds every pixel of an image that is not fully transparent
+     * @param image The image to trim
+     * @return The x, y, width and height of the box, which is empty if the whole image is transparent
+     */
+    private static int[] trim(BufferedImage image) {
+        int left = image.getWidth(), top = image.getHeight(), right = -1, bottom = -1;
+        for(int y = 0; y < image.getHeight(); ++y) {
+            for(int x = 0; x < image.getWidth(); ++x) {
+                if(image.getRGB(x, y) >>> 24 != 0) {
+                    left = Math.min(left, x);
+                    right = Math.max(right, x);
+                    top = Math.min(top, y);
+                    bottom = Math.max(bottom, y);
+                }
+            }
+        }
+        if(right == -1)
+            return new int[] {0, 0, 0, 0};
+        return new int[] {left, top, right - left + 1, bottom - top + 1};
+    }
+    
+}
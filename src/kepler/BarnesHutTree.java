@@ -0,0 +1,354 @@
+package kepler;
+
+import java.util.Arrays;
+
+/**
+ * A quadtree over the bodies of an n-body system that approximates the pull of faraway groups of bodies by their total mass at
+ * their center of mass, which brings the cost of finding every body's acceleration from O(n^2) down to O(n log n)
+ *
+ * The nodes are kept in primitive arrays that are reused between builds so that rebuilding the tree every step does not
+ * allocate once the arrays have grown large enough
+ */
+class BarnesHutTree {
+    /**
+     * The value of nodeBody for a node without any bodies
+     */
+    private static final int EMPTY = -1;
+    
+    /**
+     * The value of nodeBody for a node that has been split into four children
+     */
+    private static final int INTERNAL = -2;
+    
+    /**
+     * The deepest a node can be, past which bodies at practically the same position are merged into one leaf
+     */
+    private static final int MAX_DEPTH = 48;
+    
+    /**
+     * The number of nodes in the tree
+     */
+    private int nodeCount;
+    
+    /**
+     * The center and half the side length of the square that each node covers
+     */
+    private double[] centerX, centerY, halfSize;
+    
+    /**
+     * The total mass of the bodies in each node
+     */
+    private double[] nodeMass;
+    
+    /**
+     * The mass-weighted sum of the positions of the bodies in each node while the tree is being built, which is divided by
+     * the node's mass once the tree is built to become its center of mass
+     */
+    private double[] massX, massY;
+    
+    /**
+     * The index of the first of the four children of each node, which are always stored next to each other
+     */
+    private int[] firstChild;
+    
+    /**
+     * The index of the first body in each leaf, or EMPTY or INTERNAL
+     */
+    private int[] nodeBody;
+    
+    /**
+     * The index of the next body in the same leaf as each body, or EMPTY if it is the last one, which links together the
+     * bodies that are merged into one leaf past the maximum depth
+     */
+    private int[] nextBody;
+    
+    /**
+     * The depth of each node, where the root is at depth 0
+     */
+    private int[] depth;
+    
+    /**
+     * The indices of the bodies in the order that the tree's leaves are visited in, so that bodies that are next to each
+     * other in this order are also close together in space
+     */
+    private int[] bodyOrder;
+    
+    /**
+     * The number of bodies that have been added to bodyOrder
+     */
+    private int orderedCount;
+    
+    /**
+     * BarnesHutTree constructor that makes room for the given number of bodies
+     * @param capacity The number of bodies that the tree can be built over before its arrays need to grow
+     */
+    BarnesHutTree(int capacity) {
+        int nodes = Math.max(16, 4 * capacity);
+        centerX = new double[nodes];
+        centerY = new double[nodes];
+        halfSize = new double[nodes];
+        nodeMass = new double[nodes];
+        massX = new double[nodes];
+        massY = new double[nodes];
+        firstChild = new int[nodes];
+        nodeBody = new int[nodes];
+        depth = new int[nodes];
+        bodyOrder = new int[Math.max(1, capacity)];
+        nextBody = new int[Math.max(1, capacity)];
+    }
+    
+    /**
+     * Rebuilds the tree over the given bodies
+     * @param x    The x-coordinate of each body in meters
+     * @param y    The y-coordinate of each body in meters
+     * @param mass The mass of each body in kg
+     * @param size The number of bodies
+     */
+    void build(double[] x, double[] y, double[] mass, int size) {
+        //Finds the smallest square that covers every body
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < size; ++i) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        if(size == 0)
+            minX = minY = maxX = maxY = 0;
+        
+        if(bodyOrder.length < size) {
+            bodyOrder = new int[size];
+            nextBody = new int[size];
+        }
+        
+        nodeCount = 0;
+        int root = newNode((minX + maxX) / 2, (minY + maxY) / 2, Math.max(Math.max(maxX - minX, maxY - minY) / 2, Double.MIN_NORMAL) * 1.0001, 0);
+        for(int i = 0; i < size; ++i)
+            insert(root, i, x, y, mass);
+        
+        //Turns the mass-weighted sums into centers of mass
+        for(int node = 0; node < nodeCount; ++node) {
+            if(nodeMass[node] != 0) {
+                massX[node] /= nodeMass[node];
+                massY[node] /= nodeMass[node];
+            }
+        }
+        
+        orderedCount = 0;
+        orderBodies(root);
+    }
+    
+    /**
+     * Adds the bodies of the leaves under the given node to bodyOrder in the order that the leaves are visited in
+     * @param node The node whose leaves are visited
+     */
+    private void orderBodies(int node) {
+        if(nodeBody[node] == INTERNAL) {
+            int first = firstChild[node];
+            for(int child = first; child < first + 4; ++child)
+                orderBodies(child);
+        }
+        else {
+            for(int body = nodeBody[node]; body != EMPTY; body = nextBody[body])
+                bodyOrder[orderedCount++] = body;
+        }
+    }
+    
+    /**
+     * Returns the body at the given position when the bodies are ordered by the tree's leaves, which is the order that the
+     * bodies should be accelerated in so that consecutive bodies walk through mostly the same nodes
+     * @param position The position in the order from 0 to one less than the number of bodies
+     * @return The index of the body at that position
+     */
+    int getOrderedBody(int position) {
+        return bodyOrder[position];
+    }
+    
+    /**
+     * Adds a body to the given node or to whichever of its descendants covers the body's position
+     * @param node The node to add the body to
+     * @param body The index of the body
+     * @param x    The x-coordinate of each body in meters
+     * @param y    The y-coordinate of each body in meters
+     * @param mass The mass of each body in kg
+     */
+    private void insert(int node, int body, double[] x, double[] y, double[] mass) {
+        while(true) {
+            if(nodeBody[node] == EMPTY) {
+                nodeBody[node] = body;
+                nextBody[body] = EMPTY;
+                addMass(node, x[body], y[body], mass[body]);
+                return;
+            }
+            if(nodeBody[node] != INTERNAL) {
+                //Bodies that are too close together to be split further stay merged in this leaf
+                if(depth[node] >= MAX_DEPTH) {
+                    nextBody[body] = nodeBody[node];
+                    nodeBody[node] = body;
+                    addMass(node, x[body], y[body], mass[body]);
+                    return;
+                }
+                
+                //Splits the leaf and moves its body down into the matching child
+                int existing = nodeBody[node];
+                split(node);
+                int child = childFor(node, x[existing], y[existing]);
+                nodeBody[child] = existing;
+                addMass(child, x[existing], y[existing], mass[existing]);
+            }
+            addMass(node, x[body], y[body], mass[body]);
+            node = childFor(node, x[body], y[body]);
+        }
+    }
+    
+    /**
+     * Turns a leaf into an internal node with four empty children, keeping the mass of the leaf's body in the node
+     * @param node The leaf to split
+     */
+    private void split(int node) {
+        double half = halfSize[node] / 2;
+        int first = newNode(centerX[node] - half, centerY[node] - half, half, depth[node] + 1);
+        newNode(centerX[node] + half, centerY[node] - half, half, depth[node] + 1);
+        newNode(centerX[node] - half, centerY[node] + half, half, depth[node] + 1);
+        newNode(centerX[node] + half, centerY[node] + half, half, depth[node] + 1);
+        firstChild[node] = first;
+        nodeBody[node] = INTERNAL;
+    }
+    
+    /**
+     * Returns the child of an internal node that covers the given position
+     * @param node The internal node
+     * @param x    The x-coordinate of the position in meters
+     * @param y    The y-coordinate of the position in meters
+     * @return The child that covers the position
+     */
+    private int childFor(int node, double x, double y) {
+        return firstChild[node] + (x >= centerX[node] ? 1 : 0) + (y >= centerY[node] ? 2 : 0);
+    }
+    
+    /**
+     * Adds a body's mass and mass-weighted position to a node
+     * @param node The node to add to
+     * @param x    The x-coordinate of the body in meters
+     * @param y    The y-coordinate of the body in meters
+     * @param mass The mass of the body in kg
+     */
+    private void addMass(int node, double x, double y, double mass) {
+        nodeMass[node] += mass;
+        massX[node] += mass * x;
+        massY[node] += mass * y;
+    }
+    
+    /**
+     * Adds an empty leaf to the tree, growing the arrays if they are full
+     * @param x     The x-coordinate of the center of the node's square
+     * @param y     The y-coordinate of the center of the node's square
+     * @param half  Half of the side length of the node's square
+     * @param level The depth of the node
+     * @return The index of the new node
+     */
+    private int newNode(double x, double y, double half, int level) {
+        if(nodeCount == centerX.length)
+            grow();
+        int node = nodeCount++;
+        centerX[node] = x;
+        centerY[node] = y;
+        halfSize[node] = half;
+        depth[node] = level;
+        nodeMass[node] = 0;
+        massX[node] = 0;
+        massY[node] = 0;
+        firstChild[node] = -1;
+        nodeBody[node] = EMPTY;
+        return node;
+    }
+    
+    /**
+     * Doubles the number of nodes that the arrays can hold
+     */
+    private void grow() {
+        int capacity = centerX.length * 2;
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        halfSize = Arrays.copyOf(halfSize, capacity);
+        nodeMass = Arrays.copyOf(nodeMass, capacity);
+        massX = Arrays.copyOf(massX, capacity);
+        massY = Arrays.copyOf(massY, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nodeBody = Arrays.copyOf(nodeBody, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+    }
+    
+    /**
+     * Adds the acceleration on a body due to every other body in the tree to the given arrays
+     * @param body         The index of the body
+     * @param x            The x-coordinate of each body in meters
+     * @param y            The y-coordinate of each body in meters
+     * @param mass         The mass of each body in kg
+     * @param openingAngle The largest ratio of a node's side length to its distance at which the node is treated as one mass
+     * @param softening    The squared softening length added to every squared distance to keep close encounters finite
+     * @param ax           The array that the x-component of the acceleration is added to
+     * @param ay           The array that the y-component of the acceleration is added to
+     */
+    void accelerate(int body, double[] x, double[] y, double[] mass, double openingAngle, double softening, double[] ax, double[] ay) {
+        if(nodeCount != 0)
+            accelerate(0, body, x, y, mass, openingAngle * openingAngle, softening, ax, ay);
+    }
+    
+    /**
+     * Adds the pull of a node on a body, descending into the node's children if the node is too close to be treated as one mass
+     * @param node                The node pulling on the body
+     * @param body                The index of the body
+     * @param x                   The x-coordinate of each body in meters
+     * @param y                   The y-coordinate of each body in meters
+     * @param mass                The mass of each body in kg
+     * @param openingAngleSquared The square of the opening angle
+     * @param softening           The squared softening length
+     * @param ax                  The array that the x-component of the acceleration is added to
+     * @param ay                  The array that the y-component of the acceleration is added to
+     */
+    private void accelerate(int node, int body, double[] x, double[] y, double[] mass, double openingAngleSquared, double softening, double[] ax, double[] ay) {
+        if(nodeMass[node] == 0)
+            return;
+        
+        //Leaves pull with each of their bodies apart from the body itself, so merged bodies pull on each other but not on themselves
+        if(nodeBody[node] != INTERNAL) {
+            for(int other = nodeBody[node]; other != EMPTY; other = nextBody[other]) {
+                if(other != body)
+                    pull(body, x[other] - x[body], y[other] - y[body], mass[other], softening, ax, ay);
+            }
+            return;
+        }
+        
+        //Internal nodes are used directly if they appear small enough from the body
+        double dx = massX[node] - x[body];
+        double dy = massY[node] - y[body];
+        double size = 2 * halfSize[node];
+        if(size * size < openingAngleSquared * (dx * dx + dy * dy))
+            pull(body, dx, dy, nodeMass[node], softening, ax, ay);
+        else {
+            int first = firstChild[node];
+            for(int child = first; child < first + 4; ++child)
+                accelerate(child, body, x, y, mass, openingAngleSquared, softening, ax, ay);
+        }
+    }
+    
+    /**
+     * Adds the softened pull of a mass at the given offset from a body to the body's acceleration
+     * @param body      The index of the body
+     * @param dx        The x-offset in meters from the body to the mass
+     * @param dy        The y-offset in meters from the body to the mass
+     * @param mass      The mass in kg that pulls on the body
+     * @param softening The squared softening length
+     * @param ax        The array that the x-component of the acceleration is added to
+     * @param ay        The array that the y-component of the acceleration is added to
+     */
+    private static void pull(int body, double dx, double dy, double mass, double softening, double[] ax, double[] ay) {
+        double distanceSquared = dx * dx + dy * dy + softening;
+        double strength = Orbit.GRAVITATIONAL_CONSTANT * mass / (distanceSquared * Math.sqrt(distanceSquared));
+        ax[body] += strength * dx;
+        ay[body] += strength * dy;
+    }
+    
+}
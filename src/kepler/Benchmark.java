@@ -0,0 +1,699 @@
+package kepler;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Command-line entry point that times the headless parts of the simulation and prints the results
+ */
+class Benchmark {
+    /**
+     * The number of satellites used in the population benchmark
+     */
+    private static final int POPULATION_SIZE = 100000;
+    
+    /**
+     * The number of bodies used in the n-body benchmark
+     */
+    private static final int N_BODY_SIZE = 50000;
+    
+    /**
+     * The number of bodies used to check the accuracy of the Barnes-Hut tree against the exact sum
+     */
+    private static final int N_BODY_VALIDATION_SIZE = 5000;
+    
+    /**
+     * The number of warm-up and timed runs of the n-body benchmark, which is much slower per run than the others
+     */
+    private static final int N_BODY_RUNS = 20;
+    
+    /**
+     * The number of candidate orbits checked for collisions per run of the collision benchmark
+     */
+    private static final int COLLISION_CHECKS = 1000000;
+    
+    /**
+     * The number of values formatted per run of the formatting benchmark, which is about as many as the HUD shows in a second
+     */
+    private static final int FORMATTED_VALUES = 8 * 60;
+    
+    /**
+     * The number of states recorded per second by the recording benchmark
+     */
+    private static final int RECORDING_RATE = 1000;
+    
+    /**
+     * The number of seconds of states recorded by the recording benchmark, which is long enough to grow the file a few times
+     */
+    private static final int RECORDED_SECONDS = 600;
+    
+    /**
+     * The number of random times seeked to in the recording benchmark
+     */
+    private static final int SEEKS = 1000000;
+    
+    /**
+     * The number of samples written by each run of the export benchmark
+     */
+    private static final int EXPORTED_SAMPLES = 2000000;
+    
+    /**
+     * The number of steps of an orbit timed per run of the ephemeris benchmark
+     */
+    private static final int ORBIT_STEPS = 100000;
+    
+    /**
+     * The number of warm-up and timed samplings of a new ephemeris, which are much slower than the other runs
+     */
+    private static final int EPHEMERIS_RUNS = 20;
+    
+    /**
+     * The number of pictures in the star animation
+     */
+    private static final int STAR_FRAMES = 288;
+    
+    /**
+     * The number of times the star animation is loaded and drawn in each way when timing it
+     */
+    private static final int STAR_RUNS = 10;
+    
+    /**
+     * The most bytes of star frames kept decoded when timing decoding them as they are needed
+     */
+    private static final long STAR_FRAME_BUDGET = 1024 * 1024;
+    
+    /**
+     * The time in nanoseconds between frames when playing the star animation with frames decoded as they are needed, which is
+     * shorter than the planet's so that the benchmark is quick while still giving the background thread time to decode
+     */
+    private static final long STAR_FRAME_NANOS = 6000000;
+    
+    /**
+     * The images that are converted when the program starts, which are timed with and without the pixel cache
+     */
+    private static final String[] STARTUP_IMAGES = {"/starAtlas.png", "/planet.png", "/spaceBackground.png", "/credits.png", "/headerButtons/close.png", "/headerButtons/draggable.png", "/headerButtons/music.png", "/headerButtons/sfx.png", "/save.png", "/checkBox.png", "/tickMark.png", "/cog.png", "/cogHover.png", "/about.png", "/aboutHover.png"};
+    
+    /**
+     * The longest time a frame can take in nanoseconds to keep up 60 frames per second
+     */
+    private static final double FRAME_BUDGET_NANOS = 1000000000.0 / 60;
+    
+    /**
+     * The number of untimed runs done before measuring so that the JIT compiler has warmed up
+     */
+    private static final int WARM_UP_RUNS = 200;
+    
+    /**
+     * The number of timed runs that are averaged
+     */
+    private static final int TIMED_RUNS = 600;
+    
+    /**
+     * The JVM's measurements of its threads, which is looked up once since looking it up allocates
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    /**
+     * Runs every benchmark, exiting with status 1 once they are done if stepping the population did not fit in a 60 fps frame
+     * @param args The number of threads used for the parallel benchmarks, which defaults to the number of available processors
+     */
+    public static void main(String... args) throws IOException {
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        boolean withinBudget = populationStep();
+        withinBudget &= parallelPopulationStep(parallelism);
+        nBodyAccelerations(parallelism);
+        collisionChecks();
+        ephemerisInterpolation();
+        scientificFormatting();
+        trajectoryRecording();
+        trajectoryExport(TrajectoryExporter.Format.COLUMNAR);
+        trajectoryExport(TrajectoryExporter.Format.CSV);
+        starLoading();
+        lazyStarFrames();
+        satelliteRotation();
+        pixelCacheLoading();
+        if(!withinBudget)
+            System.exit(1);
+    }
+    
+    /**
+     * Returns a population of satellites on random orbits that is the same every time it is made
+     * @return A population of POPULATION_SIZE satellites
+     */
+    private static SatellitePopulation randomPopulation() {
+        SatellitePopulation population = new SatellitePopulation(500000000000000.0, POPULATION_SIZE);
+        Random random = new Random(312);
+        for(int i = 0; i < POPULATION_SIZE; ++i)
+            population.add(10 + random.nextDouble() * 90, 10 + random.nextDouble() * 90);
+        return population;
+    }
+    
+    /**
+     * Times advancing a population of satellites around one planet by one frame
+     * @return Whether a step fit in a 60 fps frame
+     */
+    private static boolean populationStep() {
+        SatellitePopulation population = randomPopulation();
+        for(int i = 0; i < WARM_UP_RUNS; ++i)
+            population.step(1 / 60.0);
+        long start = System.nanoTime();
+        for(int i = 0; i < TIMED_RUNS; ++i)
+            population.step(1 / 60.0);
+        double nanosPerStep = (System.nanoTime() - start) / (double) TIMED_RUNS;
+        
+        return reportBudget("Population step (" + POPULATION_SIZE + " satellites)", nanosPerStep);
+    }
+    
+    /**
+     * Times advancing a population of satellites by one frame on a fork-join pool and checks that the results are identical to
+     * advancing it on one thread
+     * @param parallelism The number of threads to step with
+     * @return Whether a step fit in a 60 fps frame
+     */
+    private static boolean parallelPopulationStep(int parallelism) {
+        SatellitePopulation population = randomPopulation();
+        ParallelStepper stepper = new ParallelStepper(parallelism);
+        for(int i = 0; i < WARM_UP_RUNS; ++i)
+            stepper.step(population, 1 / 60.0);
+        long start = System.nanoTime();
+        for(int i = 0; i < TIMED_RUNS; ++i)
+            stepper.step(population, 1 / 60.0);
+        double nanosPerStep = (System.nanoTime() - start) / (double) TIMED_RUNS;
+        stepper.shutdown();
+        
+        /*
+         * Every satellite must end up in exactly the same state as on one thread. The check uses at least two threads even when
+         * the timing uses one, since one thread steps the whole population on the calling thread without splitting it.
+         */
+        int splitParallelism = Math.max(2, parallelism);
+        SatellitePopulation split = randomPopulation();
+        SatellitePopulation reference = randomPopulation();
+        ParallelStepper splitStepper = new ParallelStepper(splitParallelism);
+        for(int i = 0; i < WARM_UP_RUNS; ++i) {
+            splitStepper.step(split, 1 / 60.0);
+            reference.step(1 / 60.0);
+        }
+        splitStepper.shutdown();
+        boolean identical = true;
+        for(int i = 0; i < POPULATION_SIZE && identical; ++i)
+            identical = split.getAngle(i) == reference.getAngle(i) && split.getRadius(i) == reference.getRadius(i) && split.getVelocity(i) == reference.getVelocity(i);
+        
+        System.out.println("Parallel results on " + splitParallelism + " threads identical to single-threaded results: " + identical);
+        return reportBudget("Parallel population step (" + POPULATION_SIZE + " satellites, " + parallelism + " threads)", nanosPerStep);
+    }
+    
+    /**
+     * Returns a system of bodies on random orbits that is the same every time it is made
+     * @param planetMass The mass in kg of the planet at the origin
+     * @param size       The number of bodies
+     * @return A system of the given number of bodies
+     */
+    private static NBodySystem randomSystem(double planetMass, int size) {
+        NBodySystem system = new NBodySystem(planetMass, size);
+        Random random = new Random(312);
+        for(int i = 0; i < size; ++i)
+            system.addOnOrbit(10 + random.nextDouble() * 90, 10 + random.nextDouble() * 90, random.nextDouble() * 2 * Math.PI, 1000000);
+        return system;
+    }
+    
+    /**
+     * Times finding the accelerations of an n-body system with the Barnes-Hut tree and checks the tree's error against the
+     * exact sum on a smaller system
+     * @param parallelism The number of threads to find the accelerations with
+     */
+    private static void nBodyAccelerations(int parallelism) {
+        ParallelStepper stepper = new ParallelStepper(parallelism);
+        NBodySystem system = randomSystem(500000000000000.0, N_BODY_SIZE);
+        system.setSofteningLength(0.1);
+        system.setStepper(stepper);
+        for(int i = 0; i < N_BODY_RUNS; ++i)
+            system.computeAccelerations();
+        long start = System.nanoTime();
+        for(int i = 0; i < N_BODY_RUNS; ++i)
+            system.computeAccelerations();
+        report("Barnes-Hut accelerations (" + system.size() + " bodies, " + parallelism + " threads)", (System.nanoTime() - start) / (double) N_BODY_RUNS);
+        
+        /*
+         * Compares the tree with the exact sum using the root mean square error relative to the root mean square acceleration,
+         * with a massless planet since the planet's exact pull would otherwise hide the tree's error
+         */
+        NBodySystem tree = randomSystem(0, N_BODY_VALIDATION_SIZE);
+        NBodySystem exact = randomSystem(0, N_BODY_VALIDATION_SIZE);
+        tree.setSofteningLength(0.1);
+        exact.setSofteningLength(0.1);
+        exact.setBruteForce(true);
+        tree.setStepper(stepper);
+        exact.setStepper(stepper);
+        tree.computeAccelerations();
+        start = System.nanoTime();
+        exact.computeAccelerations();
+        double exactNanos = System.nanoTime() - start;
+        double errorSquared = 0, accelerationSquared = 0;
+        for(int i = 0; i < tree.size(); ++i) {
+            double dx = tree.getAccelerationX(i) - exact.getAccelerationX(i);
+            double dy = tree.getAccelerationY(i) - exact.getAccelerationY(i);
+            errorSquared += dx * dx + dy * dy;
+            accelerationSquared += Math.pow(exact.getAccelerationX(i), 2) + Math.pow(exact.getAccelerationY(i), 2);
+        }
+        stepper.shutdown();
+        report("Brute-force accelerations (" + exact.size() + " bodies, " + parallelism + " threads)", exactNanos);
+        System.out.printf("Barnes-Hut relative acceleration error (opening angle %.2f): %.2e%n", NBodySystem.DEFAULT_OPENING_ANGLE, Math.sqrt(errorSquared / accelerationSquared));
+    }
+    
+    /**
+     * Times checking random candidate orbits for collisions between the satellite and planet
+     */
+    private static void collisionChecks() {
+        Random random = new Random(312);
+        double[] radii = new double[2 * COLLISION_CHECKS];
+        for(int i = 0; i < radii.length; ++i)
+            radii[i] = 1 + random.nextDouble() * 99;
+        int collisions = 0;
+        for(int run = 0; run < 10; ++run) {
+            for(int i = 0; i < COLLISION_CHECKS; ++i) {
+                if(Orbit.intersectsPlanet(radii[2 * i], radii[2 * i + 1], 1200, 600))
+                    ++collisions;
+            }
+        }
+        collisions = 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < COLLISION_CHECKS; ++i) {
+            if(Orbit.intersectsPlanet(radii[2 * i], radii[2 * i + 1], 1200, 600))
+                ++collisions;
+        }
+        double nanos = System.nanoTime() - start;
+        
+        report("Collision checks (" + COLLISION_CHECKS + " orbits)", nanos);
+        System.out.printf("Collision checks per second: %.3e (%d collisions)%n", COLLISION_CHECKS / (nanos / 1000000000), collisions);
+    }
+    
+    /**
+     * Times formatting HUD values with ScientificFormatter against the String.format and BigDecimal path that it replaced, and
+     * measures how much garbage each creates
+     */
+    private static void scientificFormatting() {
+        Random random = new Random(312);
+        double[] values = new double[FORMATTED_VALUES];
+        for(int i = 0; i < values.length; ++i)
+            values[i] = (random.nextDouble() - 0.2) * Math.pow(10, random.nextInt(40) - 20);
+        char[] line = new char[ScientificFormatter.MAX_LENGTH];
+        
+        //Both paths must give the same text for the values that the old path could format, which were the positive ones
+        boolean identical = true;
+        for(double value : values) {
+            if(value > 0)
+                identical &= legacyScientific(0, value).equals(new String(line, 0, ScientificFormatter.format(value, line, 0)));
+        }
+        
+        int length = 0;
+        for(int run = 0; run < WARM_UP_RUNS; ++run) {
+            for(double value : values)
+                length += ScientificFormatter.format(value, line, 0) + legacyScientific(0, Math.abs(value)).length();
+        }
+        long allocatedBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+        for(int run = 0; run < TIMED_RUNS; ++run) {
+            for(double value : values)
+                length += ScientificFormatter.format(value, line, 0);
+        }
+        double formatterNanos = (System.nanoTime() - start) / (double) TIMED_RUNS;
+        long formatterBytes = getAllocatedBytes() - allocatedBefore;
+        
+        allocatedBefore = getAllocatedBytes();
+        start = System.nanoTime();
+        for(int run = 0; run < TIMED_RUNS; ++run) {
+            for(double value : values)
+                length += legacyScientific(0, Math.abs(value)).length();
+        }
+        double legacyNanos = (System.nanoTime() - start) / (double) TIMED_RUNS;
+        long legacyBytes = getAllocatedBytes() - allocatedBefore;
+        
+        report("ScientificFormatter (" + FORMATTED_VALUES + " values)", formatterNanos);
+        report("String.format and BigDecimal (" + FORMATTED_VALUES + " values)", legacyNanos);
+        System.out.printf("Bytes allocated per value: %.1f with ScientificFormatter, %.1f with String.format (checksum %d)%n", formatterBytes / (double) TIMED_RUNS / FORMATTED_VALUES, legacyBytes / (double) TIMED_RUNS / FORMATTED_VALUES, length);
+        System.out.println("ScientificFormatter output identical to String.format output: " + identical);
+    }
+    
+    /**
+     * Times stepping an orbit by solving Kepler's equation compared with interpolating it from a cached ephemeris, along with
+     * sampling a new ephemeris and finding one that is already cached
+     */
+    private static void ephemerisInterpolation() {
+        OrbitElements elements = new OrbitElements(20, 30, 500000000000000.0, 1280, 720);
+        
+        //Samples new ephemerides directly instead of through the cache, which may already hold this orbit
+        int sampleChecksum = 0;
+        for(int run = 0; run < EPHEMERIS_RUNS; ++run)
+            sampleChecksum += new Ephemeris(elements, EphemerisCache.DEFAULT_SAMPLES).getAccurateIntervals();
+        long start = System.nanoTime();
+        for(int run = 0; run < EPHEMERIS_RUNS; ++run)
+            sampleChecksum += new Ephemeris(elements, EphemerisCache.DEFAULT_SAMPLES).getAccurateIntervals();
+        double sampleNanos = (System.nanoTime() - start) / (double) EPHEMERIS_RUNS;
+        
+        Ephemeris ephemeris = EphemerisCache.get(elements, EphemerisCache.DEFAULT_SAMPLES);
+        Orbit solved = new Orbit(elements), interpolated = new Orbit(elements, ephemeris);
+        double checksum = 0;
+        for(int run = 0; run < 10; ++run) {
+            for(int i = 0; i < ORBIT_STEPS; ++i) {
+                solved.step(0.37);
+                interpolated.step(0.37);
+                checksum += solved.getVisualRadius() + interpolated.getVisualRadius();
+            }
+        }
+        start = System.nanoTime();
+        for(int i = 0; i < ORBIT_STEPS; ++i) {
+            solved.step(0.37);
+            checksum += solved.getVisualRadius();
+        }
+        double solvedNanos = (System.nanoTime() - start) / (double) ORBIT_STEPS;
+        start = System.nanoTime();
+        for(int i = 0; i < ORBIT_STEPS; ++i) {
+            interpolated.step(0.37);
+            checksum += interpolated.getVisualRadius();
+        }
+        double interpolatedNanos = (System.nanoTime() - start) / (double) ORBIT_STEPS;
+        
+        //Every lookup after the first finds the ephemeris already in the cache
+        for(int i = 0; i < ORBIT_STEPS; ++i)
+            sampleChecksum += EphemerisCache.get(elements, EphemerisCache.DEFAULT_SAMPLES).getSamples();
+        start = System.nanoTime();
+        for(int i = 0; i < ORBIT_STEPS; ++i)
+            sampleChecksum += EphemerisCache.get(elements, EphemerisCache.DEFAULT_SAMPLES).getSamples();
+        double hitNanos = (System.nanoTime() - start) / (double) ORBIT_STEPS;
+        
+        System.out.printf("Orbit step: %.1f ns solved, %.1f ns interpolated from %d samples (%d of them accurate, checksum %.0f)%n", solvedNanos, interpolatedNanos, ephemeris.getSamples(), ephemeris.getAccurateIntervals(), checksum);
+        System.out.printf("Ephemeris: %.3f ms to sample, %.1f ns when cached (checksum %d)%n", sampleNanos / 1000000, hitNanos, sampleChecksum);
+    }
+    
+    /**
+     * Times recording a satellite's states to a temporary file at RECORDING_RATE and seeking through the recording
+     */
+    private static void trajectoryRecording() throws IOException {
+        Orbit orbit = new Orbit(20, 30, 500000000000000.0, 1280, 720);
+        Path path = Files.createTempFile("kepler", ".trajectory");
+        double step = 1.0 / RECORDING_RATE;
+        long start;
+        double recordingNanos;
+        try(TrajectoryRecorder recorder = new TrajectoryRecorder(path, orbit.getElements())) {
+            start = System.nanoTime();
+            for(int i = 0; i < RECORDING_RATE * RECORDED_SECONDS; ++i) {
+                orbit.step(step);
+                recorder.record(i * step, orbit.getOrbitAngle(), orbit.getRadius(), orbit.getRadialVelocity(), orbit.getTransverseVelocity());
+            }
+            recordingNanos = System.nanoTime() - start;
+        }
+        
+        Random random = new Random(312);
+        double seekNanos, checksum = 0;
+        try(TrajectoryReplayer replayer = new TrajectoryReplayer(path)) {
+            double end = replayer.getTime(replayer.size() - 1);
+            for(int i = 0; i < SEEKS; ++i)
+                checksum += replayer.seek(random.nextDouble() * end);
+            start = System.nanoTime();
+            for(int i = 0; i < SEEKS; ++i)
+                checksum += replayer.seek(random.nextDouble() * end);
+            seekNanos = (System.nanoTime() - start) / (double) SEEKS;
+        }
+        finally {
+            Files.delete(path);
+        }
+        //Each 60 fps frame records a sixtieth of a second of states, and the time includes stepping the orbit for each of them
+        report("Trajectory recording (" + RECORDING_RATE / 60 + " states per frame)", recordingNanos / RECORDED_SECONDS / 60);
+        System.out.printf("Trajectory seek: %.1f ns per seek through %d records (checksum %.0f)%n", seekNanos, RECORDING_RATE * RECORDED_SECONDS, checksum);
+    }
+    
+    /**
+     * Times exporting samples to a temporary file as fast as the writing thread can take them, waiting whenever every batch is
+     * full instead of dropping samples so that the time is the rate that can be sustained
+     * @param format The layout to write samples in
+     */
+    private static void trajectoryExport(TrajectoryExporter.Format format) throws IOException {
+        Orbit orbit = new Orbit(20, 30, 500000000000000.0, 1280, 720);
+        Path path = Files.createTempFile("kepler", ".export");
+        long start = System.nanoTime(), exportNanos = 0, waits = 0;
+        try(TrajectoryExporter exporter = new TrajectoryExporter(path, format)) {
+            for(int i = 0; i < EXPORTED_SAMPLES; ++i) {
+                orbit.step(0.001);
+                long exportStart = System.nanoTime();
+                while(!exporter.export(i * 0.001, orbit.getVelocity(), orbit.getTransverseVelocity(), orbit.getRadialVelocity(), orbit.getRadius(), orbit.getAngularVelocity())) {
+                    ++waits;
+                    Thread.yield();
+                }
+                exportNanos += System.nanoTime() - exportStart;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(path);
+        Files.delete(path);
+        System.out.printf("Trajectory export (%s): %.2e samples per second, %.1f ns per export call, %.1f MB written, %d waits for a free batch%n", format, EXPORTED_SAMPLES / seconds, exportNanos / (double) EXPORTED_SAMPLES, bytes / 1e6, waits);
+    }
+    
+    /**
+     * Times loading the star animation from its separate pictures compared with from its sprite atlas, along with drawing every
+     * frame of it and the pixels that each way keeps once converted to the 32-bit images that the frame is drawn with
+     */
+    private static void starLoading() throws IOException {
+        BufferedImage[] separate = new BufferedImage[STAR_FRAMES];
+        SpriteAtlas atlas = null;
+        long separateNanos = 0, atlasNanos = 0;
+        for(int run = 0; run <= STAR_RUNS; ++run) {
+            //The first run is not timed, since it includes loading the image decoder's classes
+            long start = System.nanoTime();
+            for(int i = 0; i < STAR_FRAMES; ++i)
+                separate[i] = toArgb(ImageIO.read(Benchmark.class.getResource("/star/star" + i + ".png")));
+            long separateEnd = System.nanoTime();
+            atlas = new SpriteAtlas(toArgb(ImageIO.read(Benchmark.class.getResource("/starAtlas.png"))), Benchmark.class.getResource("/starAtlas.txt").openStream());
+            long atlasEnd = System.nanoTime();
+            if(run > 0) {
+                separateNanos += separateEnd - start;
+                atlasNanos += atlasEnd - separateEnd;
+            }
+        }
+        
+        BufferedImage canvas = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = canvas.createGraphics();
+        long separateDrawNanos = 0, atlasDrawNanos = 0;
+        for(int run = 0; run < WARM_UP_RUNS + TIMED_RUNS; ++run) {
+            long start = System.nanoTime();
+            for(int i = 0; i < STAR_FRAMES; ++i)
+                g2d.drawImage(separate[i], 557, 257, null);
+            long separateEnd = System.nanoTime();
+            for(int i = 0; i < STAR_FRAMES; ++i)
+                atlas.draw(g2d, i, 557, 257);
+            long atlasEnd = System.nanoTime();
+            if(run >= WARM_UP_RUNS) {
+                separateDrawNanos += separateEnd - start;
+                atlasDrawNanos += atlasEnd - separateEnd;
+            }
+        }
+        g2d.dispose();
+        
+        long separateBytes = 4L * STAR_FRAMES * separate[0].getWidth() * separate[0].getHeight();
+        long atlasBytes = 4L * atlas.getImage().getWidth() * atlas.getImage().getHeight();
+        System.out.printf("Star loading: %.1f ms from %d pictures, %.1f ms from the atlas%n", separateNanos / 1e6 / STAR_RUNS, STAR_FRAMES, atlasNanos / 1e6 / STAR_RUNS);
+        System.out.printf("Star frames: %.2f MB of pixels in %d images, %.2f MB in one atlas image%n", separateBytes / 1e6, STAR_FRAMES, atlasBytes / 1e6);
+        System.out.printf("Star drawing: %.1f us per frame from pictures, %.1f us per frame from the atlas%n", separateDrawNanos / 1e3 / TIMED_RUNS / STAR_FRAMES, atlasDrawNanos / 1e3 / TIMED_RUNS / STAR_FRAMES);
+    }
+    
+    /**
+     * Plays the star animation backwards once with its frames decoded as they are needed, timing getting each frame and
+     * measuring how many bytes of frames are kept compared with keeping every frame decoded
+     */
+    private static void lazyStarFrames() {
+        LazyFrames frames = new LazyFrames(STAR_FRAMES, -1, STAR_FRAME_BUDGET, i -> {
+            try {
+                return toArgb(ImageIO.read(Benchmark.class.getResource("/star/star" + i + ".png")));
+            }
+            catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        long totalNanos = 0, maxNanos = 0, peakBytes = 0;
+        for(int i = STAR_FRAMES - 1; i >= 0; --i) {
+            long start = System.nanoTime();
+            frames.get(i);
+            long nanos = System.nanoTime() - start;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            peakBytes = Math.max(peakBytes, frames.getBytes());
+            LockSupport.parkNanos(STAR_FRAME_NANOS);
+        }
+        long allBytes = 4L * STAR_FRAMES * frames.getFrameWidth() * frames.getFrameHeight();
+        System.out.printf("Lazy star frames: %.1f us per frame on average, %.1f us at most, %d of %d decoded on demand%n", totalNanos / 1e3 / STAR_FRAMES, maxNanos / 1e3, frames.getMisses(), STAR_FRAMES);
+        System.out.printf("Lazy star frames: %.2f MB kept at most with a %.2f MB budget, compared with %.2f MB for every frame%n", peakBytes / 1e6, STAR_FRAME_BUDGET / 1e6, allBytes / 1e6);
+    }
+    
+    /**
+     * Times drawing the spinning satellite by rotating its image every frame compared with copying it from a rotation cache,
+     * through a whole turn of the satellite's π/400 radian steps for each timed run
+     */
+    private static void satelliteRotation() throws IOException {
+        BufferedImage image = toArgb(ImageIO.read(Benchmark.class.getResource("/planet.png")));
+        RotationCache cache = new RotationCache(image, RotationCache.DEFAULT_ROTATIONS);
+        BufferedImage canvas = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = canvas.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        long start = System.nanoTime();
+        for(int i = 0; i < RotationCache.DEFAULT_ROTATIONS; ++i)
+            cache.get(Math.PI / 400 * i);
+        double warmUpNanos = System.nanoTime() - start;
+        long rotateNanos = 0, cachedNanos = 0;
+        for(int run = 0; run < 20; ++run) {
+            start = System.nanoTime();
+            for(int i = 0; i < RotationCache.DEFAULT_ROTATIONS; ++i) {
+                AffineTransform trans = new AffineTransform();
+                trans.translate(600.3 - image.getWidth() / 2.0, 300.7 - image.getHeight() / 2.0);
+                trans.rotate(-Math.PI / 400 * i, image.getWidth() / 2.0, image.getHeight() / 2.0);
+                g2d.drawImage(image, trans, null);
+            }
+            long rotateEnd = System.nanoTime();
+            for(int i = 0; i < RotationCache.DEFAULT_ROTATIONS; ++i)
+                cache.draw(g2d, -Math.PI / 400 * i, 600.3, 300.7);
+            long cachedEnd = System.nanoTime();
+            if(run >= 10) {
+                rotateNanos += rotateEnd - start;
+                cachedNanos += cachedEnd - rotateEnd;
+            }
+        }
+        g2d.dispose();
+        int draws = 10 * RotationCache.DEFAULT_ROTATIONS;
+        System.out.printf("Satellite drawing: %.2f us rotating every frame, %.2f us from the rotation cache%n", rotateNanos / 1e3 / draws, cachedNanos / 1e3 / draws);
+        System.out.printf("Rotation cache: %.1f ms to draw all %d rotations, %.2f MB kept%n", warmUpNanos / 1e6, cache.getRendered(), 4.0 * cache.getRendered() * cache.getSize() * cache.getSize() / 1e6);
+    }
+    
+    /**
+     * Times getting the images converted at startup by decoding and converting their PNGs compared with copying them from a
+     * pixel cache in a temporary folder, where the cache's time includes hashing the PNG's bytes to check that it has not changed
+     */
+    private static void pixelCacheLoading() throws IOException {
+        Path directory = Files.createTempDirectory("kepler-pixel-cache");
+        PixelCache cache = new PixelCache(directory);
+        long decodeNanos = 0, cacheNanos = 0, misses = 0;
+        for(int run = 0; run <= STAR_RUNS; ++run) {
+            //The first run is not timed, and it is also the one that writes the cache
+            for(String resource : STARTUP_IMAGES) {
+                byte[] content;
+                try(InputStream stream = Benchmark.class.getResourceAsStream(resource)) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    for(int read = stream.read(buffer); read != -1; read = stream.read(buffer))
+                        bytes.write(buffer, 0, read);
+                    content = bytes.toByteArray();
+                }
+                long start = System.nanoTime();
+                BufferedImage decoded = toArgb(ImageIO.read(new ByteArrayInputStream(content)));
+                long decodeEnd = System.nanoTime();
+                byte[] hash = PixelCache.hash(content);
+                BufferedImage cached = cache.get(resource, hash, transparency -> ColorModel.getRGBdefault());
+                long cacheEnd = System.nanoTime();
+                if(cached == null) {
+                    ++misses;
+                    cache.put(resource, hash, decoded);
+                }
+                if(run > 0) {
+                    decodeNanos += decodeEnd - start;
+                    cacheNanos += cacheEnd - decodeEnd;
+                }
+            }
+        }
+        long bytes = 0;
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for(Path file : files) {
+                bytes += Files.size(file);
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+        System.out.printf("Startup images: %.1f ms decoding %d PNGs, %.1f ms from the pixel cache (%d misses, %.1f MB cached)%n", decodeNanos / 1e6 / STAR_RUNS, STARTUP_IMAGES.length, cacheNanos / 1e6 / STAR_RUNS, misses, bytes / 1e6);
+    }
+    
+    /**
+     * Copies an image into a 32-bit image with transparency, which is the kind of image that Runner.getCompatibleImage()
+     * usually converts pictures into
+     * @param image The image to copy
+     * @return The 32-bit copy of the image
+     */
+    private static BufferedImage toArgb(BufferedImage image) {
+        BufferedImage argb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = argb.createGraphics();
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return argb;
+    }
+    
+    /**
+     * The recursive String.format and BigDecimal formatting that the HUD used before ScientificFormatter, kept to compare with
+     * @param tenMultiple Current power of ten
+     * @param normal      Current Double value
+     * @return String in scientific notation with the coefficient rounded to the hundredths
+     */
+    private static String legacyScientific(int tenMultiple, double normal) {
+        if(Double.isInfinite(normal))
+            return "Very large";
+        else if(Double.isNaN(normal) || normal == 0)
+            return "0";
+        else if(normal >= 10)
+            return legacyScientific(tenMultiple + 1, normal / 10.0);
+        else if(normal < 1)
+            return legacyScientific(tenMultiple - 1, normal * 10);
+        else {
+            BigDecimal bigNormal = new BigDecimal(normal);
+            bigNormal = bigNormal.setScale(2, RoundingMode.HALF_UP);
+            if(bigNormal.doubleValue() >= 10) {
+                bigNormal = bigNormal.divide(BigDecimal.TEN, RoundingMode.HALF_UP);
+                ++tenMultiple;
+            }
+            return String.format("%.2f e %d", bigNormal.doubleValue(), tenMultiple);
+        }
+    }
+    
+    /**
+     * Returns the number of bytes that the current thread has allocated so far, or 0 if the JVM cannot measure it
+     * @return The bytes allocated by the current thread
+     */
+    private static long getAllocatedBytes() {
+        if(THREADS instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return 0;
+    }
+    
+    /**
+     * Prints the average time of a benchmark along with how much of a 60 fps frame it uses
+     * @param name         The name of the benchmark
+     * @param nanosPerStep The average time in nanoseconds of one run
+     */
+    private static void report(String name, double nanosPerStep) {
+        System.out.printf("%s: %.3f ms, %.1f%% of a 60 fps frame%n", name, nanosPerStep / 1000000, 100 * nanosPerStep / FRAME_BUDGET_NANOS);
+    }
+    
+    /**
+     * Prints the average time of a benchmark that has to fit in a 60 fps frame along with whether it did
+     * @param name         The name of the benchmark
+     * @param nanosPerStep The average time in nanoseconds of one run
+     * @return Whether the average time fit in a 60 fps frame
+     */
+    private static boolean reportBudget(String name, double nanosPerStep) {
+        boolean withinBudget = nanosPerStep <= FRAME_BUDGET_NANOS;
+        System.out.printf("%s: %.3f ms, %.1f%% of a 60 fps frame: %s%n", name, nanosPerStep / 1000000, 100 * nanosPerStep / FRAME_BUDGET_NANOS, withinBudget ? "passed" : "FAILED");
+        return withinBudget;
+    }
+    
+}
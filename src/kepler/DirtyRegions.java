@@ -0,0 +1,116 @@
+package kepler;
+
+import java.awt.Rectangle;
+
+/**
+ * The areas of the frame that changed since it was last painted, kept as a few separate rectangles so that far apart changes
+ * are repainted on their own instead of as one rectangle covering everything between them
+ *
+ * Rectangles that overlap or touch are merged as they are added, so no area is painted twice. The rectangles are reused from
+ * frame to frame, so tracking the changes creates no objects.
+ */
+class DirtyRegions {
+    /**
+     * The most rectangles that are kept, after which every added area is merged into the last rectangle
+     */
+    static final int MAX_REGIONS = 16;
+    
+    /**
+     * The kept rectangles, of which the first size are in use
+     */
+    private final Rectangle[] regions = new Rectangle[MAX_REGIONS];
+    
+    /**
+     * The number of rectangles in use
+     */
+    private int size = 0;
+    
+    /**
+     * DirtyRegions constructor that creates the reused rectangles
+     */
+    DirtyRegions() {
+        for(int i = 0; i < regions.length; ++i)
+            regions[i] = new Rectangle();
+    }
+    
+    /**
+     * Removes every rectangle
+     */
+    void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Adds an area that changed, merging it with every kept rectangle that it overlaps or touches
+     * @param x      The x-coordinate of the area's top left corner
+     * @param y      The y-coordinate of the area's top left corner
+     * @param width  The width of the area
+     * @param height The height of the area
+     */
+    void add(int x, int y, int width, int height) {
+        if(width <= 0 || height <= 0)
+            return;
+        Rectangle added;
+        if(size < MAX_REGIONS) {
+            added = regions[size++];
+            added.setBounds(x, y, width, height);
+        }
+        else {
+            added = regions[size - 1];
+            added.add(x, y);
+            added.add(x + width, y + height);
+        }
+        
+        //Merges until no two rectangles overlap, since each merge can make the merged rectangle reach others
+        boolean merged;
+        do {
+            merged = false;
+            for(int i = 0; i < size; ++i) {
+                Rectangle region = regions[i];
+                if(region != added && touches(region, added)) {
+                    added.add(region);
+                    regions[i] = regions[--size];
+                    regions[size] = region;
+                    merged = true;
+                    break;
+                }
+            }
+        } while(merged);
+    }
+    
+    /**
+     * Adds an area that changed
+     * @param area The area to add
+     */
+    void add(Rectangle area) {
+        add(area.x, area.y, area.width, area.height);
+    }
+    
+    /**
+     * Returns whether two rectangles overlap or share an edge
+     * @param a One of the rectangles
+     * @param b The other rectangle
+     * @return Whether the rectangles overlap or touch
+     */
+    private static boolean touches(Rectangle a, Rectangle b) {
+        return a.x <= b.x + b.width && b.x <= a.x + a.width && a.y <= b.y + b.height && b.y <= a.y + a.height;
+    }
+    
+    /**
+     * Returns the number of rectangles
+     * @return The number of separate changed areas
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Returns one of the rectangles, which stays in use until the regions are cleared or added to
+     * @param index The index of the rectangle from 0 to size() - 1
+     * @return The rectangle
+     */
+    Rectangle get(int index) {
+        return regions[index];
+    }
+    
+}
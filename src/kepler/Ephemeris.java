@@ -0,0 +1,168 @@
+package kepler;
+
+/**
+ * One period of an orbit sampled at evenly spaced times, which fully describes the orbit since it repeats every period, so that
+ * the satellite's state at any time can be interpolated from the samples instead of solved for
+ *
+ * The angle and radius are interpolated with cubic Hermite splines using their rates of change, the angular and radial
+ * velocities, so they stay accurate near the periapsis where they change fastest. The velocities are interpolated linearly.
+ * Intervals whose midpoint is still not interpolated within the tolerances, which happens near the periapsis of very eccentric
+ * orbits, are marked so that the state in them is solved for instead.
+ */
+final class Ephemeris {
+    /**
+     * The index within the interpolated values of the orbitAngle relative to the periapsis
+     */
+    static final int ANGLE = 0;
+    
+    /**
+     * The index within the interpolated values of the distance in meters between the planet and the satellite
+     */
+    static final int RADIUS = 1;
+    
+    /**
+     * The index within the interpolated values of the component of the velocity parallel to the radius
+     */
+    static final int RADIAL_VELOCITY = 2;
+    
+    /**
+     * The index within the interpolated values of the component of the velocity perpendicular to the radius
+     */
+    static final int TRANSVERSE_VELOCITY = 3;
+    
+    /**
+     * The index within the interpolated values of the net velocity
+     */
+    static final int VELOCITY = 4;
+    
+    /**
+     * The number of values that are interpolated
+     */
+    static final int SIZE = 5;
+    
+    /**
+     * The largest error in radians of the interpolated angle that is accepted
+     */
+    static final double ANGLE_TOLERANCE = 1e-6;
+    
+    /**
+     * The largest error of the other interpolated values relative to their exact values that is accepted
+     */
+    static final double RELATIVE_TOLERANCE = 1e-4;
+    
+    /**
+     * The time in seconds it takes the satellite to orbit once around the planet
+     */
+    private final double period;
+    
+    /**
+     * The number of samples per period
+     */
+    private final int samples;
+    
+    /**
+     * The sampled values, with one more sample than the resolution so that the last interval ends at the start of the next
+     * period, where the angle continues past 2π instead of wrapping to 0
+     */
+    private final double[] angles, radii, radialVelocities, transverseVelocities, velocities;
+    
+    /**
+     * Whether each interval between samples is interpolated within the tolerances
+     */
+    private final boolean[] accurate;
+    
+    /**
+     * Ephemeris constructor that samples one period of the orbit with the given elements
+     * @param elements The values of the orbit to sample
+     * @param samples  The number of samples per period
+     */
+    Ephemeris(OrbitElements elements, int samples) {
+        if(samples < 2)
+            throw new IllegalArgumentException("An ephemeris needs at least 2 samples per period");
+        this.samples = samples;
+        period = elements.getPeriod();
+        angles = new double[samples + 1];
+        radii = new double[samples + 1];
+        radialVelocities = new double[samples + 1];
+        transverseVelocities = new double[samples + 1];
+        velocities = new double[samples + 1];
+        
+        Orbit orbit = new Orbit(elements);
+        for(int i = 0; i < samples; ++i) {
+            orbit.setTime(i * period / samples);
+            angles[i] = orbit.getOrbitAngle();
+            radii[i] = orbit.getRadius();
+            radialVelocities[i] = orbit.getRadialVelocity();
+            transverseVelocities[i] = orbit.getTransverseVelocity();
+            velocities[i] = orbit.getVelocity();
+        }
+        angles[samples] = angles[0] + 2 * Math.PI;
+        radii[samples] = radii[0];
+        radialVelocities[samples] = radialVelocities[0];
+        transverseVelocities[samples] = transverseVelocities[0];
+        velocities[samples] = velocities[0];
+        
+        //Checks each interval at its midpoint, where the interpolation is furthest from the samples
+        accurate = new boolean[samples];
+        double[] values = new double[SIZE];
+        for(int i = 0; i < samples; ++i) {
+            double time = (i + 0.5) * period / samples;
+            orbit.setTime(time);
+            
+            //Lets the interval be interpolated while it is being checked
+            accurate[i] = true;
+            interpolate(time, values);
+            double angleError = Math.abs(values[ANGLE] - orbit.getOrbitAngle());
+            accurate[i] = Math.min(angleError, 2 * Math.PI - angleError) <= ANGLE_TOLERANCE && Math.abs(values[RADIUS] - orbit.getRadius()) <= RELATIVE_TOLERANCE * orbit.getRadius() && Math.abs(values[RADIAL_VELOCITY] - orbit.getRadialVelocity()) <= RELATIVE_TOLERANCE * orbit.getVelocity() && Math.abs(values[TRANSVERSE_VELOCITY] - orbit.getTransverseVelocity()) <= RELATIVE_TOLERANCE * orbit.getVelocity() && Math.abs(values[VELOCITY] - orbit.getVelocity()) <= RELATIVE_TOLERANCE * orbit.getVelocity();
+        }
+    }
+    
+    /**
+     * Returns the number of samples per period
+     * @return The resolution of the ephemeris
+     */
+    int getSamples() {
+        return samples;
+    }
+    
+    /**
+     * Returns the number of intervals between samples that are interpolated within the tolerances
+     * @return The number of accurate intervals from 0 to the number of samples
+     */
+    int getAccurateIntervals() {
+        int count = 0;
+        for(boolean b : accurate) {
+            if(b)
+                ++count;
+        }
+        return count;
+    }
+    
+    /**
+     * Writes the state of the satellite at the given time, interpolated from the samples around it, into an array in the order
+     * given by the index constants, unless the time is in an interval that cannot be interpolated accurately
+     * @param time   The time in seconds since the satellite was at the periapsis, from 0 to less than one period
+     * @param values The array of at least SIZE doubles to write the state into
+     * @return Whether the state was written, which is false if it has to be solved for instead
+     */
+    boolean interpolate(double time, double[] values) {
+        double position = time / period * samples;
+        int i = Math.min((int) position, samples - 1);
+        if(!accurate[i])
+            return false;
+        double t = position - i, step = period / samples;
+        
+        //The cubic Hermite basis functions
+        double t2 = t * t, t3 = t2 * t;
+        double h00 = 2 * t3 - 3 * t2 + 1, h10 = t3 - 2 * t2 + t, h01 = -2 * t3 + 3 * t2, h11 = t3 - t2;
+        
+        double angle = h00 * angles[i] + h10 * step * transverseVelocities[i] / radii[i] + h01 * angles[i + 1] + h11 * step * transverseVelocities[i + 1] / radii[i + 1];
+        values[ANGLE] = angle >= 2 * Math.PI ? angle - 2 * Math.PI : angle;
+        values[RADIUS] = h00 * radii[i] + h10 * step * radialVelocities[i] + h01 * radii[i + 1] + h11 * step * radialVelocities[i + 1];
+        values[RADIAL_VELOCITY] = radialVelocities[i] + t * (radialVelocities[i + 1] - radialVelocities[i]);
+        values[TRANSVERSE_VELOCITY] = transverseVelocities[i] + t * (transverseVelocities[i + 1] - transverseVelocities[i]);
+        values[VELOCITY] = velocities[i] + t * (velocities[i + 1] - velocities[i]);
+        return true;
+    }
+    
+}
@@ -0,0 +1,122 @@
+package kepler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the ephemerides of the most recently used orbits so that switching back to an orbit that was recently shown does not
+ * sample it again, evicting the least recently used ephemeris once MAX_ENTRIES are kept
+ */
+final class EphemerisCache {
+    /**
+     * The number of samples per period used when none is chosen
+     */
+    static final int DEFAULT_SAMPLES = 4096;
+    
+    /**
+     * The most ephemerides that are kept at once
+     */
+    static final int MAX_ENTRIES = 8;
+    
+    /**
+     * The kept ephemerides in order of when they were last used, from least to most recent
+     */
+    private static final LinkedHashMap<Key, Ephemeris> cache = new LinkedHashMap<Key, Ephemeris>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        
+        /**
+         * Evicts the least recently used ephemeris once there are more than MAX_ENTRIES
+         * @param eldest The least recently used entry
+         * @return Whether or not to evict it
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Ephemeris> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    
+    /**
+     * EphemerisCache only holds static methods, so it is never constructed
+     */
+    private EphemerisCache() {}
+    
+    /**
+     * Returns the ephemeris of the orbit with the given elements, sampling it only if it is not already kept. The visual scale
+     * of the elements does not matter, so the same orbit shown in different views shares one ephemeris.
+     * @param elements The values of the orbit
+     * @param samples  The number of samples per period
+     * @return The ephemeris of the orbit
+     */
+    static synchronized Ephemeris get(OrbitElements elements, int samples) {
+        Key key = new Key(elements.getRadiusMajor(), elements.getRadiusMinor(), elements.getPlanetMass(), samples);
+        Ephemeris ephemeris = cache.get(key);
+        if(ephemeris == null) {
+            ephemeris = new Ephemeris(elements, samples);
+            cache.put(key, ephemeris);
+        }
+        return ephemeris;
+    }
+    
+    /**
+     * Returns the number of ephemerides currently kept
+     * @return The number of kept ephemerides
+     */
+    static synchronized int size() {
+        return cache.size();
+    }
+    
+    /**
+     * The values that identify an ephemeris
+     */
+    private static final class Key {
+        /**
+         * The semi-major and semi-minor axes in meters and the mass in kg of the planet
+         */
+        private final double radiusMajor, radiusMinor, planetMass;
+        
+        /**
+         * The number of samples per period
+         */
+        private final int samples;
+        
+        /**
+         * Key constructor that takes in every value that identifies an ephemeris
+         * @param radiusMajor The semi-major axis in meters
+         * @param radiusMinor The semi-minor axis in meters
+         * @param planetMass  The mass in kg of the orbited planet
+         * @param samples     The number of samples per period
+         */
+        Key(double radiusMajor, double radiusMinor, double planetMass, int samples) {
+            this.radiusMajor = radiusMajor;
+            this.radiusMinor = radiusMinor;
+            this.planetMass = planetMass;
+            this.samples = samples;
+        }
+        
+        /**
+         * Returns whether another key identifies the same ephemeris
+         * @param other The object to compare with
+         * @return Whether every value of the keys is the same
+         */
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof Key))
+                return false;
+            Key key = (Key) other;
+            return Double.compare(radiusMajor, key.radiusMajor) == 0 && Double.compare(radiusMinor, key.radiusMinor) == 0 && Double.compare(planetMass, key.planetMass) == 0 && samples == key.samples;
+        }
+        
+        /**
+         * Returns a hash code made from every value of the key
+         * @return The hash code
+         */
+        @Override
+        public int hashCode() {
+            int hash = Double.hashCode(radiusMajor);
+            hash = 31 * hash + Double.hashCode(radiusMinor);
+            hash = 31 * hash + Double.hashCode(planetMass);
+            return 31 * hash + samples;
+        }
+    }
+    
+}
@@ -0,0 +1,207 @@
+package kepler;
+
+import java.util.Arrays;
+
+/**
+ * Advances an n-body system in fixed steps no matter how often frames are drawn, carrying over leftover frame time to the
+ * next frame, and gives positions interpolated between the last two steps so that motion looks smooth at any frame rate
+ *
+ * When time is warped so far that a frame would need more fixed steps than the budget allows, the frame is instead covered
+ * by substeps whose lengths are picked from the bodies' angular velocities, so that the steps stay short near periapsis and
+ * long near apoapsis while their number never passes the budget. Past the warp that the budget can follow accurately, the
+ * simulated time per frame stops growing.
+ */
+class FixedStepSimulation {
+    /**
+     * The largest number of steps taken in one frame, past which the frame is covered by adaptive substeps instead so that
+     * the time spent stepping per frame stays bounded at any time warp
+     */
+    private static final int MAX_STEPS_PER_FRAME = 1000;
+    
+    /**
+     * The angle in radians that the fastest-turning body sweeps around the planet in one adaptive substep while the budget
+     * allows substeps this short
+     */
+    private static final double FINE_ANGLE_PER_SUBSTEP = 2 * Math.PI / 2000;
+    
+    /**
+     * The largest angle in radians that the fastest-turning body may sweep in one adaptive substep, past which the integration
+     * would no longer follow the orbit, so time that cannot be covered within the budget is dropped instead
+     */
+    private static final double COARSE_ANGLE_PER_SUBSTEP = 2 * Math.PI / 100;
+    
+    /**
+     * The system that is advanced
+     */
+    private final NBodySystem system;
+    
+    /**
+     * The amount of simulated time in seconds that each step advances the system by
+     */
+    private final double fixedStep;
+    
+    /**
+     * The simulated time in seconds that has not yet been stepped through
+     */
+    private double accumulator = 0;
+    
+    /**
+     * The total simulated time in seconds that the system has been stepped through
+     */
+    private double time = 0;
+    
+    /**
+     * The simulated time in seconds that the last call to advance could not step through within the budget and dropped
+     */
+    private double dropped = 0;
+    
+    /**
+     * The position of each body in meters before the last step
+     */
+    private double[] previousX, previousY;
+    
+    /**
+     * FixedStepSimulation constructor that takes in the system to advance and the length of each step
+     * @param system    The system to advance
+     * @param fixedStep The amount of simulated time in seconds that each step advances the system by
+     */
+    FixedStepSimulation(NBodySystem system, double fixedStep) {
+        this.system = system;
+        this.fixedStep = fixedStep;
+        previousX = new double[system.size()];
+        previousY = new double[system.size()];
+        savePreviousPositions();
+    }
+    
+    /**
+     * Adds the given amount of simulated time to the accumulator and takes as many fixed steps as fit into it
+     * @param seconds The amount of simulated time in seconds that has passed since the last call
+     * @return The number of steps that were taken
+     */
+    int advance(double seconds) {
+        dropped = 0;
+        accumulator += seconds;
+        if(accumulator / fixedStep > MAX_STEPS_PER_FRAME)
+            return advanceAdaptive();
+        int steps = 0;
+        while(accumulator >= fixedStep) {
+            savePreviousPositions();
+            system.step(fixedStep);
+            accumulator -= fixedStep;
+            time += fixedStep;
+            ++steps;
+        }
+        return steps;
+    }
+    
+    /**
+     * Steps through the accumulated time in at most MAX_STEPS_PER_FRAME substeps. Each substep lasts as long as it takes the
+     * fastest-turning body to sweep FINE_ANGLE_PER_SUBSTEP, stretched to an equal share of the remaining time over the
+     * remaining budget if that is longer, but never long enough to sweep more than COARSE_ANGLE_PER_SUBSTEP.
+     * @return The number of substeps that were taken
+     */
+    private int advanceAdaptive() {
+        int steps = 0;
+        while(accumulator > 0 && steps < MAX_STEPS_PER_FRAME) {
+            double angularVelocity = getMaxAngularVelocity();
+            double substep = Math.max(FINE_ANGLE_PER_SUBSTEP / angularVelocity, accumulator / (MAX_STEPS_PER_FRAME - steps));
+            substep = Math.min(Math.min(substep, COARSE_ANGLE_PER_SUBSTEP / angularVelocity), accumulator);
+            system.step(substep);
+            accumulator -= substep;
+            time += substep;
+            ++steps;
+        }
+        
+        //Time left over once the budget is spent is dropped, and there is no earlier position to interpolate from
+        dropped = accumulator;
+        accumulator = 0;
+        savePreviousPositions();
+        return steps;
+    }
+    
+    /**
+     * Returns the largest angular velocity around the planet out of every body
+     * @return The largest angular velocity in rad/s
+     */
+    private double getMaxAngularVelocity() {
+        double maxAngularVelocity = 0;
+        for(int i = 0; i < system.size(); ++i)
+            maxAngularVelocity = Math.max(maxAngularVelocity, Math.abs(system.getTransverseVelocity(i)) / system.getRadius(i));
+        return maxAngularVelocity;
+    }
+    
+    /**
+     * Copies the current position of every body into the previous positions
+     */
+    private void savePreviousPositions() {
+        int size = system.size();
+        if(previousX.length < size) {
+            previousX = Arrays.copyOf(previousX, size);
+            previousY = Arrays.copyOf(previousY, size);
+        }
+        for(int i = 0; i < size; ++i) {
+            previousX[i] = system.getX(i);
+            previousY[i] = system.getY(i);
+        }
+    }
+    
+    /**
+     * Returns how far the leftover time is between the last step and the next one, from 0 to just under 1
+     * @return The fraction used to interpolate between the last two steps
+     */
+    double getAlpha() {
+        return accumulator / fixedStep;
+    }
+    
+    /**
+     * Returns the x-coordinate of a body interpolated between its positions at the last two steps
+     * @param i The index of the body
+     * @return The interpolated x-coordinate in meters relative to the planet
+     */
+    double getInterpolatedX(int i) {
+        return previousX[i] + (system.getX(i) - previousX[i]) * getAlpha();
+    }
+    
+    /**
+     * Returns the y-coordinate of a body interpolated between its positions at the last two steps
+     * @param i The index of the body
+     * @return The interpolated y-coordinate in meters relative to the planet
+     */
+    double getInterpolatedY(int i) {
+        return previousY[i] + (system.getY(i) - previousY[i]) * getAlpha();
+    }
+    
+    /**
+     * Returns the total simulated time in seconds that the system has been stepped through
+     * @return The simulated time
+     */
+    double getTime() {
+        return time;
+    }
+    
+    /**
+     * Returns the simulated time that the last call to advance dropped because the warp was too high to step through all of it
+     * within the budget
+     * @return The dropped time in seconds, which is 0 if every second was stepped through
+     */
+    double getDroppedTime() {
+        return dropped;
+    }
+    
+    /**
+     * Returns the amount of simulated time in seconds that each step advances the system by
+     * @return The fixed step
+     */
+    double getFixedStep() {
+        return fixedStep;
+    }
+    
+    /**
+     * Returns the system that is advanced
+     * @return The n-body system
+     */
+    NBodySystem getSystem() {
+        return system;
+    }
+    
+}
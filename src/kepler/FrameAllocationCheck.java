@@ -0,0 +1,97 @@
+package kepler;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Command-line check that fails if the frames that the program draws allocate more than FRAME_ALLOCATION_BUDGET bytes each once
+ * they are warmed up
+ *
+ * It runs the same advance and paintFrame that every tick and repaint run, with the real planet, satellite, static layer,
+ * buttons and pop-ups, drawing into an image instead of the JFrame with every value shown. Since that sets up the program's
+ * global state, it is its own entry point that does nothing else, so that it always runs in a JVM of its own and does not
+ * change what Benchmark measures. It prints the bytes that were allocated and exits with status 1 if they are over the budget.
+ */
+class FrameAllocationCheck {
+    /**
+     * The most bytes that advancing and drawing one frame may allocate on average once warmed up, above which the check fails
+     */
+    private static final long FRAME_ALLOCATION_BUDGET = 0;
+    
+    /**
+     * The number of frames drawn while measuring the bytes allocated per frame
+     */
+    private static final int ALLOCATION_FRAMES = 10000;
+    
+    /**
+     * The least number of frames drawn before measuring so that the JIT compiler has warmed up
+     */
+    private static final int WARM_UP_FRAMES = 2000;
+    
+    /**
+     * The JVM's measurements of its threads, which is looked up once since looking it up allocates
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    /**
+     * Measures the bytes allocated by the frames and exits with status 1 if they are over the budget
+     * @param args Unused
+     */
+    public static void main(String... args) throws IOException {
+        //Draws without a display, which has to be chosen before anything from AWT is loaded
+        System.setProperty("java.awt.headless", "true");
+        if(!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            System.err.println("This JVM cannot measure the bytes that a thread allocates");
+            System.exit(1);
+        }
+        
+        AssetLoader loader = new AssetLoader(new StartupTimeline());
+        Runner.setUpFrame(loader, System.nanoTime());
+        loader.shutdown();
+        Runner.setValuesShown(true);
+        BufferedImage canvas = new BufferedImage(Runner.frameWidth(), Runner.frameHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = canvas.createGraphics();
+        GraphicsConfiguration configuration = g2d.getDeviceConfiguration();
+        
+        /*
+         * The satellite spins by the time that has passed, so it only draws each of its rotations once it has turned to it,
+         * which depends on how fast the frames are drawn. The warm up lasts until every rotation has been drawn, since those
+         * are allocated once rather than every frame.
+         */
+        for(int frame = 0; frame < WARM_UP_FRAMES || Satellite.getRenderedRotations() < Runner.getSatelliteRotations(); ++frame)
+            drawFrame(g2d, configuration);
+        
+        /*
+         * Each frame is measured on its own instead of around the whole loop, since the JIT swapping in a compiled copy of the
+         * running loop allocates on this thread while it is being measured
+         */
+        long allocated = 0;
+        for(int frame = 0; frame < ALLOCATION_FRAMES; ++frame)
+            allocated += drawFrame(g2d, configuration);
+        g2d.dispose();
+        
+        //Compares the total instead of an average so that a few bytes on some of the frames are not rounded away
+        boolean withinBudget = allocated <= FRAME_ALLOCATION_BUDGET * ALLOCATION_FRAMES;
+        System.out.printf("Frame allocation: %d bytes over %d frames (%.2f per frame), budget %d bytes per frame: %s%n", allocated, ALLOCATION_FRAMES, allocated / (double) ALLOCATION_FRAMES, FRAME_ALLOCATION_BUDGET, withinBudget ? "passed" : "FAILED");
+        System.exit(withinBudget ? 0 : 1);
+    }
+    
+    /**
+     * Advances and draws one frame of the program the same way that a tick and its repaint do
+     * @param g2d           The graphics object of the image that is drawn to
+     * @param configuration The graphics configuration that the static layer's image is made compatible with
+     * @return The bytes allocated while advancing and drawing the frame
+     */
+    private static long drawFrame(Graphics2D g2d, GraphicsConfiguration configuration) {
+        long id = Thread.currentThread().getId();
+        long allocatedBefore = ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(id);
+        Runner.advance();
+        Runner.paintFrame(g2d, configuration);
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(id) - allocatedBefore;
+    }
+    
+}
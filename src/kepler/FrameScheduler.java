@@ -0,0 +1,148 @@
+package kepler;
+
+import javax.swing.JFrame;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Chooses how long to wait before drawing the next frame based on whether the frame can be seen and whether anything on it is
+ * animating, so that the program stops drawing while it is minimized and draws slowly while nothing needs a high frame rate
+ *
+ * Frames are drawn at the full rate only while an animation that needs it is running, such as a pop-up changing size or the
+ * orbit being sped up. Otherwise they are drawn at IDLE_FRAME_NANOS while the window is focused and its orbit can be seen,
+ * since the star's frames and the orbit at its normal speed change no faster than that, at UNFOCUSED_FRAME_NANOS while the
+ * window is not focused and at COVERED_FRAME_NANOS while the orbit is covered. No frames
+ * are drawn at all while the window is minimized or hidden, and the scheduler is only checked every PAUSED_POLL_NANOS until
+ * the window is restored, which wakes the frames up straight away.
+ */
+class FrameScheduler extends WindowAdapter {
+    /**
+     * The value returned by getFrameNanos() while no frames should be drawn
+     */
+    static final long PAUSED = -1;
+    
+    /**
+     * The time to wait before checking again whether frames should be drawn while they are paused
+     */
+    static final long PAUSED_POLL_NANOS = 250000000;
+    
+    /**
+     * The time between frames while the window is focused and nothing needs the full rate, which is about 60 fps and so a little
+     * faster than the star's 18 ms frames
+     */
+    static final long IDLE_FRAME_NANOS = 1000000000L / 60;
+    
+    /**
+     * The time between frames while the window is not focused, which is about 30 fps
+     */
+    static final long UNFOCUSED_FRAME_NANOS = 1000000000L / 30;
+    
+    /**
+     * The time between frames while the orbit is covered, which is 10 fps
+     */
+    static final long COVERED_FRAME_NANOS = 1000000000L / 10;
+    
+    /**
+     * The frame whose visibility and focus are followed
+     */
+    private final JFrame frame;
+    
+    /**
+     * The time between frames at the full rate
+     */
+    private final long activeFrameNanos;
+    
+    /**
+     * Returns whether something is animating that needs the full rate, such as an expanding pop-up
+     */
+    private final BooleanSupplier animating;
+    
+    /**
+     * Returns whether the orbit is covered so that only a few frames are needed
+     */
+    private final BooleanSupplier covered;
+    
+    /**
+     * Called on the event dispatch thread when the window is shown or focused again, or null if nothing needs to be woken
+     */
+    private final Runnable wake;
+    
+    /**
+     * Whether the window is minimized and whether it is focused
+     */
+    private volatile boolean iconified = false, focused = true;
+    
+    /**
+     * FrameScheduler constructor that starts following the frame's window events
+     * @param frame            The frame that is drawn
+     * @param activeFrameNanos The time between frames in nanoseconds at the full rate
+     * @param animating        Returns whether something is animating that needs the full rate
+     * @param covered          Returns whether the orbit is covered
+     * @param wake             Called on the event dispatch thread when the window is shown or focused again, or null
+     */
+    FrameScheduler(JFrame frame, long activeFrameNanos, BooleanSupplier animating, BooleanSupplier covered, Runnable wake) {
+        this.frame = frame;
+        this.activeFrameNanos = activeFrameNanos;
+        this.animating = animating;
+        this.covered = covered;
+        this.wake = wake;
+        frame.addWindowListener(this);
+        frame.addWindowFocusListener(this);
+    }
+    
+    /**
+     * Returns how long to wait before drawing the next frame, which has to be called on the event dispatch thread
+     * @return The time in nanoseconds until the next frame, or PAUSED if no frames should be drawn
+     */
+    long getFrameNanos() {
+        if(iconified || !frame.isShowing())
+            return PAUSED;
+        if(animating.getAsBoolean())
+            return activeFrameNanos;
+        if(covered.getAsBoolean())
+            return COVERED_FRAME_NANOS;
+        return Math.max(activeFrameNanos, focused ? IDLE_FRAME_NANOS : UNFOCUSED_FRAME_NANOS);
+    }
+    
+    /**
+     * Stops drawing while the window is minimized
+     * @param e The WindowEvent of the window being minimized
+     */
+    @Override
+    public void windowIconified(WindowEvent e) {
+        iconified = true;
+    }
+    
+    /**
+     * Starts drawing again once the window is restored
+     * @param e The WindowEvent of the window being restored
+     */
+    @Override
+    public void windowDeiconified(WindowEvent e) {
+        iconified = false;
+        if(wake != null)
+            wake.run();
+    }
+    
+    /**
+     * Draws at the full rate again once the window is focused
+     * @param e The WindowEvent of the window gaining focus
+     */
+    @Override
+    public void windowGainedFocus(WindowEvent e) {
+        focused = true;
+        if(wake != null)
+            wake.run();
+    }
+    
+    /**
+     * Draws at a lower rate while the window is not focused
+     * @param e The WindowEvent of the window losing focus
+     */
+    @Override
+    public void windowLostFocus(WindowEvent e) {
+        focused = false;
+    }
+    
+}
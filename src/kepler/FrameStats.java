@@ -0,0 +1,76 @@
+package kepler;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the times between the most recent frames so that percentiles of the frame time can be measured while the program runs,
+ * reusing the same arrays for every frame and every measurement
+ */
+class FrameStats {
+    /**
+     * The number of most recent frame times that are kept
+     */
+    static final int WINDOW = 1024;
+    
+    /**
+     * The most recent frame times in nanoseconds, used as a ring buffer
+     */
+    private final long[] frameTimes = new long[WINDOW];
+    
+    /**
+     * The copy of the frame times that is sorted to find percentiles
+     */
+    private final long[] sorted = new long[WINDOW];
+    
+    /**
+     * The total number of frame times recorded
+     */
+    private long count = 0;
+    
+    /**
+     * The time in nanoseconds that the last frame started at, or -1 before the first frame
+     */
+    private long lastFrame = -1;
+    
+    /**
+     * Marks the start of a frame, recording the time since the last frame started
+     * @param now The current value of System.nanoTime()
+     */
+    synchronized void frame(long now) {
+        if(lastFrame != -1)
+            frameTimes[(int) (count++ % WINDOW)] = now - lastFrame;
+        lastFrame = now;
+    }
+    
+    /**
+     * Returns the total number of frame times recorded
+     * @return The number of frames after the first
+     */
+    synchronized long getCount() {
+        return count;
+    }
+    
+    /**
+     * Returns a percentile of the kept frame times using the nearest-rank method
+     * @param percentile The percentile from 0 to 100
+     * @return The frame time in milliseconds, or 0 if no frames have been recorded
+     */
+    synchronized double getPercentile(double percentile) {
+        int size = (int) Math.min(count, WINDOW);
+        if(size == 0)
+            return 0;
+        System.arraycopy(frameTimes, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sorted[Math.max(rank, 1) - 1] / 1000000.0;
+    }
+    
+    /**
+     * Prints the median, 99th percentile and largest of the kept frame times
+     * @param name The name of the rendering mode that the frames were drawn with
+     */
+    void print(String name) {
+        System.out.printf("%s frame time over the last %d frames: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", name, Math.min(getCount(), WINDOW), getPercentile(50), getPercentile(99), getPercentile(100));
+    }
+    
+}
@@ -0,0 +1,54 @@
+package kepler;
+
+/**
+ * The symplectic integrators that an n-body system can be advanced with, which keep the energy error bounded over long runs
+ * instead of letting it drift
+ */
+enum Integrator {
+    /**
+     * The second-order kick-drift-kick velocity Verlet integrator, which finds the accelerations once per step
+     */
+    VELOCITY_VERLET {
+        @Override
+        void step(NBodySystem system, double seconds) {
+            system.kick(seconds / 2);
+            system.drift(seconds);
+            system.kick(seconds / 2);
+        }
+    },
+    
+    /**
+     * Yoshida's fourth-order integrator, which chains three velocity Verlet steps with weights chosen so that the second and
+     * third order errors cancel, finding the accelerations three times per step
+     */
+    YOSHIDA4 {
+        @Override
+        void step(NBodySystem system, double seconds) {
+            system.drift(YOSHIDA_C1 * seconds);
+            system.kick(YOSHIDA_W1 * seconds);
+            system.drift(YOSHIDA_C2 * seconds);
+            system.kick(YOSHIDA_W0 * seconds);
+            system.drift(YOSHIDA_C2 * seconds);
+            system.kick(YOSHIDA_W1 * seconds);
+            system.drift(YOSHIDA_C1 * seconds);
+        }
+    };
+    
+    /**
+     * The weights of the outer and middle steps of Yoshida's integrator using w1 = 1/(2 - 2^(1/3)) and w0 = 1 - 2 * w1
+     */
+    private static final double YOSHIDA_W1 = 1 / (2 - Math.cbrt(2)), YOSHIDA_W0 = 1 - 2 * YOSHIDA_W1;
+    
+    /**
+     * The fractions of the step that the bodies drift by in Yoshida's integrator, which are the averages of adjacent weights
+     */
+    private static final double YOSHIDA_C1 = YOSHIDA_W1 / 2, YOSHIDA_C2 = (YOSHIDA_W0 + YOSHIDA_W1) / 2;
+    
+    /**
+     * Advances every body in the system by the given amount of simulated time
+     * @param system  The system to advance
+     * @param seconds The amount of time in seconds to advance the bodies by
+     */
+    abstract void step(NBodySystem system, double seconds);
+    
+}
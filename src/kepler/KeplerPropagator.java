@@ -0,0 +1,150 @@
+package kepler;
+
+/**
+ * Gives the position of a satellite along its elliptical orbit at any time in O(1) by solving Kepler's equation M = E - e * sin(E)
+ * instead of accumulating the angle frame by frame
+ */
+class KeplerPropagator {
+    /**
+     * The largest difference between two Newton iterations of the eccentric anomaly that is considered converged
+     */
+    private static final double TOLERANCE = 1e-15;
+    
+    /**
+     * The largest number of Newton iterations done before the current estimate of the eccentric anomaly is returned
+     */
+    static final int MAX_ITERATIONS = 30;
+    
+    /**
+     * The eccentricity of the orbit
+     */
+    private final double eccentricity;
+    
+    /**
+     * The semi-major axis of the orbit in meters
+     */
+    private final double radiusMajor;
+    
+    /**
+     * The average angular velocity of the satellite in radians/second using n = sqrt(GM/a^3)
+     */
+    private final double meanMotion;
+    
+    /**
+     * The time it takes the satellite to orbit once around the planet in seconds
+     */
+    private final double period;
+    
+    /**
+     * The precomputed sqrt(1 + e) and sqrt(1 - e) factors used to convert the eccentric anomaly to the true anomaly
+     */
+    private final double trueAnomalyFactorSin, trueAnomalyFactorCos;
+    
+    /**
+     * KeplerPropagator constructor that takes in the shape of the orbit and the mass of the planet at its focus
+     * @param elements The values of the orbit that do not change over time
+     */
+    KeplerPropagator(OrbitElements elements) {
+        radiusMajor = elements.getRadiusMajor();
+        eccentricity = elements.getEccentricity();
+        meanMotion = elements.getMeanMotion();
+        period = elements.getPeriod();
+        trueAnomalyFactorSin = Math.sqrt(1 + eccentricity);
+        trueAnomalyFactorCos = Math.sqrt(1 - eccentricity);
+    }
+    
+    /**
+     * Returns the mean anomaly from 0 to 2π at the given time, where the satellite is at the periapsis at time 0
+     * @param time The time in seconds since the satellite was at the periapsis
+     * @return The mean anomaly at the given time
+     */
+    double getMeanAnomaly(double time) {
+        //Reduces the time to within one period first so that very large times do not lose precision in the angle
+        double meanAnomaly = meanMotion * (time % period);
+        if(meanAnomaly < 0)
+            meanAnomaly += 2 * Math.PI;
+        return meanAnomaly;
+    }
+    
+    /**
+     * Returns the eccentric anomaly at the given time
+     * @param time The time in seconds since the satellite was at the periapsis
+     * @return The eccentric anomaly at the given time
+     */
+    double getEccentricAnomaly(double time) {
+        return solveKepler(getMeanAnomaly(time), eccentricity);
+    }
+    
+    /**
+     * Returns the true anomaly from 0 to 2π at the given time, which is the orbitAngle of the satellite relative to the planet
+     * @param time The time in seconds since the satellite was at the periapsis
+     * @return The true anomaly at the given time
+     */
+    double getTrueAnomaly(double time) {
+        return getTrueAnomalyFromEccentric(getEccentricAnomaly(time));
+    }
+    
+    /**
+     * Converts the eccentric anomaly to the true anomaly from 0 to 2π using tan(v/2) = sqrt((1 + e)/(1 - e)) * tan(E/2)
+     * @param eccentricAnomaly The eccentric anomaly of the satellite
+     * @return The true anomaly of the satellite
+     */
+    double getTrueAnomalyFromEccentric(double eccentricAnomaly) {
+        double trueAnomaly = 2 * Math.atan2(trueAnomalyFactorSin * Math.sin(eccentricAnomaly / 2), trueAnomalyFactorCos * Math.cos(eccentricAnomaly / 2));
+        if(trueAnomaly < 0)
+            trueAnomaly += 2 * Math.PI;
+        return trueAnomaly;
+    }
+    
+    /**
+     * Returns the distance between the planet and the satellite in meters at the given eccentric anomaly using r = a(1 - e * cos(E))
+     * @param eccentricAnomaly The eccentric anomaly of the satellite
+     * @return The radius at the given eccentric anomaly
+     */
+    double getRadiusFromEccentric(double eccentricAnomaly) {
+        return radiusMajor * (1 - eccentricity * Math.cos(eccentricAnomaly));
+    }
+    
+    /**
+     * Solves Kepler's equation M = E - e * sin(E) for the eccentric anomaly using Newton's method
+     * @param meanAnomaly  The mean anomaly from 0 to 2π
+     * @param eccentricity The eccentricity of the orbit from 0 to less than 1
+     * @return The eccentric anomaly
+     */
+    static double solveKepler(double meanAnomaly, double eccentricity) {
+        //Starts from M + e * sin(M), which is close for low eccentricities, or π for the highly eccentric orbits where it is not
+        double eccentricAnomaly = eccentricity < 0.8 ? meanAnomaly + eccentricity * Math.sin(meanAnomaly) : Math.PI;
+        for(int i = 0; i < MAX_ITERATIONS; ++i) {
+            double delta = (eccentricAnomaly - eccentricity * Math.sin(eccentricAnomaly) - meanAnomaly) / (1 - eccentricity * Math.cos(eccentricAnomaly));
+            eccentricAnomaly -= delta;
+            if(Math.abs(delta) <= TOLERANCE)
+                break;
+        }
+        return eccentricAnomaly;
+    }
+    
+    /**
+     * Returns the eccentricity of the orbit
+     * @return The eccentricity of the orbit
+     */
+    double getEccentricity() {
+        return eccentricity;
+    }
+    
+    /**
+     * Returns the average angular velocity of the satellite in radians/second
+     * @return The mean motion of the orbit
+     */
+    double getMeanMotion() {
+        return meanMotion;
+    }
+    
+    /**
+     * Returns the time it takes the satellite to orbit once around the planet in seconds
+     * @return The period of the orbit
+     */
+    double getPeriod() {
+        return period;
+    }
+    
+}
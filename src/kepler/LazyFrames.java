@@ -0,0 +1,257 @@
+package kepler;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+/**
+ * Animation frames that are only decoded shortly before they are shown, keeping no more than a budget of bytes of decoded
+ * frames so that the whole animation never has to be held at once
+ *
+ * Every time a frame is drawn, the next PREFETCH frames in the direction that the animation plays in are decoded on a
+ * background thread. The least recently used decoded frames are dropped once they take up more than the budget. Frames are
+ * kept in arrays indexed by frame so that drawing a frame that is already decoded creates no objects. A frame that is drawn
+ * before it was decoded is decoded on the drawing thread instead, so the animation never skips a frame.
+ */
+class LazyFrames implements AnimationFrames {
+    /**
+     * The number of frames ahead of the one being drawn that are decoded in the background
+     */
+    static final int PREFETCH = 8;
+    
+    /**
+     * Decodes a frame given its index
+     */
+    private final IntFunction<BufferedImage> decoder;
+    
+    /**
+     * The number of frames in the animation
+     */
+    private final int size;
+    
+    /**
+     * The step from one frame to the next one shown, which is -1 when the animation plays backwards
+     */
+    private final int direction;
+    
+    /**
+     * The most bytes of decoded frames that are kept
+     */
+    private final long budget;
+    
+    /**
+     * The width and height of each frame, taken from the first frame that is decoded
+     */
+    private final int frameWidth, frameHeight;
+    
+    /**
+     * The decoded frames by index, or null for frames that are not kept
+     */
+    private final BufferedImage[] frames;
+    
+    /**
+     * The value of uses when each frame was last used, which the least recently used frame is found from
+     */
+    private final long[] lastUsed;
+    
+    /**
+     * The number of times that frames were used or kept, counting up so that it orders every use
+     */
+    private long uses = 0;
+    
+    /**
+     * Whether each frame is waiting to be decoded in the background
+     */
+    private final boolean[] pending;
+    
+    /**
+     * The thread that frames are decoded on ahead of being drawn
+     */
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "Frame prefetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * The number of bytes of decoded frames that are kept
+     */
+    private long bytes = 0;
+    
+    /**
+     * The number of frames decoded on the drawing thread and on the background thread
+     */
+    private int misses = 0, prefetched = 0;
+    
+    /**
+     * LazyFrames constructor that decodes the first frame to get the size of every frame
+     * @param size      The number of frames in the animation
+     * @param direction The step from one frame to the next one shown, which is 1 or -1
+     * @param budget    The most bytes of decoded frames to keep, which has to fit more than PREFETCH frames to avoid decoding
+     *                  frames again before they are drawn
+     * @param decoder   Decodes a frame given its index, which is called on the background thread too
+     */
+    LazyFrames(int size, int direction, long budget, IntFunction<BufferedImage> decoder) {
+        if(size < 1)
+            throw new IllegalArgumentException("There has to be at least one frame");
+        if(direction != 1 && direction != -1)
+            throw new IllegalArgumentException("The direction has to be 1 or -1");
+        this.size = size;
+        this.direction = direction;
+        this.budget = budget;
+        this.decoder = decoder;
+        pending = new boolean[size];
+        frames = new BufferedImage[size];
+        lastUsed = new long[size];
+        BufferedImage first = decoder.apply(0);
+        keep(0, first);
+        frameWidth = first.getWidth();
+        frameHeight = first.getHeight();
+    }
+    
+    /**
+     * Draws a frame with its top left corner at the given point, then starts decoding the frames after it
+     * @param g     The graphics object used for drawing
+     * @param frame The index of the frame from 0 to size() - 1
+     * @param x     The x-coordinate of the frame's top left corner
+     * @param y     The y-coordinate of the frame's top left corner
+     */
+    @Override
+    public void draw(Graphics g, int frame, int x, int y) {
+        g.drawImage(get(frame), x, y, null);
+    }
+    
+    /**
+     * Returns a decoded frame, decoding it on the current thread if it was not decoded ahead of time, then starts decoding the
+     * frames after it
+     * @param frame The index of the frame from 0 to size() - 1
+     * @return The decoded frame
+     */
+    BufferedImage get(int frame) {
+        BufferedImage image;
+        synchronized(this) {
+            image = frames[frame];
+            lastUsed[frame] = ++uses;
+        }
+        if(image == null) {
+            image = decoder.apply(frame);
+            synchronized(this) {
+                ++misses;
+                keep(frame, image);
+            }
+        }
+        prefetch(frame);
+        return image;
+    }
+    
+    /**
+     * Starts decoding the PREFETCH frames after a frame that are not already decoded or waiting to be
+     * @param frame The index of the frame being drawn
+     */
+    private synchronized void prefetch(int frame) {
+        for(int i = 1; i <= PREFETCH; ++i) {
+            int next = Math.floorMod(frame + i * direction, size);
+            if(pending[next] || frames[next] != null)
+                continue;
+            pending[next] = true;
+            prefetcher.execute(() -> {
+                BufferedImage image = decoder.apply(next);
+                synchronized(this) {
+                    pending[next] = false;
+                    ++prefetched;
+                    keep(next, image);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Keeps a decoded frame, dropping the least recently used frames until the kept frames fit in the budget again, which
+     * always keeps the frame that was just decoded
+     * @param frame The index of the frame
+     * @param image The decoded frame
+     */
+    private void keep(int frame, BufferedImage image) {
+        if(frames[frame] != null)
+            bytes -= getBytes(frames[frame]);
+        frames[frame] = image;
+        lastUsed[frame] = ++uses;
+        bytes += getBytes(image);
+        while(bytes > budget) {
+            int oldest = -1;
+            for(int i = 0; i < frames.length; ++i) {
+                if(i != frame && frames[i] != null && (oldest == -1 || lastUsed[i] < lastUsed[oldest]))
+                    oldest = i;
+            }
+            if(oldest == -1)
+                break;
+            bytes -= getBytes(frames[oldest]);
+            frames[oldest] = null;
+        }
+    }
+    
+    /**
+     * Returns the number of bytes that an image's pixels take up
+     * @param image The image
+     * @return The size of the image's pixel data in bytes
+     */
+    private static long getBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+    
+    /**
+     * Returns the number of frames in the animation
+     * @return The number of frames
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the width of each frame
+     * @return The frame width in pixels
+     */
+    @Override
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+    
+    /**
+     * Returns the height of each frame
+     * @return The frame height in pixels
+     */
+    @Override
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+    
+    /**
+     * Returns the number of bytes of decoded frames that are kept
+     * @return The bytes held, which stays at or under the budget
+     */
+    synchronized long getBytes() {
+        return bytes;
+    }
+    
+    /**
+     * Returns the number of frames that had to be decoded on the drawing thread because they were not decoded ahead of time
+     * @return The number of frames decoded on demand
+     */
+    synchronized int getMisses() {
+        return misses;
+    }
+    
+    /**
+     * Returns the number of frames decoded on the background thread
+     * @return The number of frames decoded ahead of time
+     */
+    synchronized int getPrefetched() {
+        return prefetched;
+    }
+    
+}
@@ -0,0 +1,427 @@
+package kepler;
+
+import java.util.Arrays;
+
+/**
+ * Satellites that are pulled by each other as well as by the planet at the origin, unlike the two-body orbits where only the
+ * planet pulls on the satellite
+ *
+ * The pull between the satellites is found with a Barnes-Hut tree by default, and the exact O(n^2) sum can be switched on to
+ * validate the tree's results
+ *
+ * The program itself only integrates the one satellite when an integrator is chosen. Systems with many bodies are only run by
+ * Benchmark, since stepping thousands of them still takes longer than a frame.
+ */
+class NBodySystem {
+    /**
+     * The number of bodies that there is room for when no capacity is given
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /**
+     * The opening angle used when none is given, which keeps the tree's error in the acceleration to around a percent
+     */
+    static final double DEFAULT_OPENING_ANGLE = 0.5;
+    
+    /**
+     * The gravitational constant multiplied by the mass of the planet at the origin
+     */
+    private final double gravitationalParameter;
+    
+    /**
+     * The number of bodies in the system
+     */
+    private int size = 0;
+    
+    /**
+     * The position of each body in meters relative to the planet
+     */
+    private double[] x, y;
+    
+    /**
+     * The velocity of each body in meters/second
+     */
+    private double[] vx, vy;
+    
+    /**
+     * The acceleration of each body in meters/second^2 at its current position
+     */
+    private double[] ax, ay;
+    
+    /**
+     * The mass of each body in kg
+     */
+    private double[] mass;
+    
+    /**
+     * Whether the accelerations are up to date with the current positions
+     */
+    private boolean accelerationsValid = false;
+    
+    /**
+     * The largest ratio of a tree node's side length to its distance at which the node's bodies are treated as one mass
+     */
+    private double openingAngle = DEFAULT_OPENING_ANGLE;
+    
+    /**
+     * The squared softening length added to every squared distance between two bodies to keep close encounters finite
+     */
+    private double softening = 0;
+    
+    /**
+     * Whether the pull between bodies is summed exactly over every pair instead of being approximated with the tree
+     */
+    private boolean bruteForce = false;
+    
+    /**
+     * The tree that approximates the pull between bodies
+     */
+    private final BarnesHutTree tree;
+    
+    /**
+     * The integrator that the bodies are advanced with
+     */
+    private Integrator integrator = Integrator.VELOCITY_VERLET;
+    
+    /**
+     * Splits the acceleration of the bodies across threads, or null if they are all found on the calling thread
+     */
+    private ParallelStepper stepper;
+    
+    /**
+     * NBodySystem constructor that takes in the mass of the planet at the origin
+     * @param planetMass The mass in kg of the planet
+     */
+    NBodySystem(double planetMass) {
+        this(planetMass, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * NBodySystem constructor that takes in the mass of the planet at the origin and the number of bodies to make room for
+     * @param planetMass The mass in kg of the planet
+     * @param capacity   The number of bodies that can be added before the columns need to grow
+     */
+    NBodySystem(double planetMass, int capacity) {
+        gravitationalParameter = Orbit.GRAVITATIONAL_CONSTANT * planetMass;
+        capacity = Math.max(1, capacity);
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        ax = new double[capacity];
+        ay = new double[capacity];
+        mass = new double[capacity];
+        tree = new BarnesHutTree(capacity);
+    }
+    
+    /**
+     * Adds a body with the given position, velocity, and mass
+     * @param x    The x-coordinate of the body in meters relative to the planet
+     * @param y    The y-coordinate of the body in meters relative to the planet
+     * @param vx   The x-component of the body's velocity in meters/second
+     * @param vy   The y-component of the body's velocity in meters/second
+     * @param mass The mass of the body in kg
+     * @return The index of the added body
+     */
+    int add(double x, double y, double vx, double vy, double mass) {
+        if(size == this.x.length)
+            grow();
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        this.mass[i] = mass;
+        accelerationsValid = false;
+        return i;
+    }
+    
+    /**
+     * Adds a body at the periapsis of the two-body orbit with the given radii, moving counterclockwise like Orbit does
+     * @param radiusOne One of the actual radii of the elliptical orbit in meters
+     * @param radiusTwo One of the actual radii of the elliptical orbit in meters
+     * @param mass      The mass of the body in kg
+     * @return The index of the added body
+     */
+    int addOnOrbit(double radiusOne, double radiusTwo, double mass) {
+        return addOnOrbit(radiusOne, radiusTwo, 0, mass);
+    }
+    
+    /**
+     * Adds a body at the periapsis of the two-body orbit with the given radii, with the orbit rotated about the planet so that
+     * its periapsis is at the given angle
+     * @param radiusOne      One of the actual radii of the elliptical orbit in meters
+     * @param radiusTwo      One of the actual radii of the elliptical orbit in meters
+     * @param periapsisAngle The angle of the periapsis relative to the positive x-axis with an origin at the planet's center
+     * @param mass           The mass of the body in kg
+     * @return The index of the added body
+     */
+    int addOnOrbit(double radiusOne, double radiusTwo, double periapsisAngle, double mass) {
+        double radiusMajor = Math.max(radiusOne, radiusTwo);
+        double radiusMinor = radiusOne + radiusTwo - radiusMajor;
+        double periapsis = radiusMajor - Math.sqrt(Math.pow(radiusMajor, 2) - Math.pow(radiusMinor, 2));
+        double speed = Math.sqrt(gravitationalParameter * (2 / periapsis - 1 / radiusMajor));
+        double cos = Math.cos(periapsisAngle), sin = Math.sin(periapsisAngle);
+        return add(periapsis * cos, periapsis * sin, -speed * sin, speed * cos, mass);
+    }
+    
+    /**
+     * Doubles the capacity of every column
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        ax = Arrays.copyOf(ax, capacity);
+        ay = Arrays.copyOf(ay, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+    }
+    
+    /**
+     * Advances every body by the given amount of simulated time using the system's integrator
+     * @param seconds The amount of time in seconds to advance the bodies by
+     */
+    void step(double seconds) {
+        integrator.step(this, seconds);
+    }
+    
+    /**
+     * Changes the velocity of every body by its acceleration at its current position over the given amount of time
+     * @param seconds The amount of time in seconds
+     */
+    void kick(double seconds) {
+        if(!accelerationsValid)
+            computeAccelerations();
+        for(int i = 0; i < size; ++i) {
+            vx[i] += ax[i] * seconds;
+            vy[i] += ay[i] * seconds;
+        }
+    }
+    
+    /**
+     * Moves every body by its current velocity over the given amount of time
+     * @param seconds The amount of time in seconds
+     */
+    void drift(double seconds) {
+        for(int i = 0; i < size; ++i) {
+            x[i] += vx[i] * seconds;
+            y[i] += vy[i] * seconds;
+        }
+        accelerationsValid = false;
+    }
+    
+    /**
+     * Finds the acceleration of every body at its current position due to the planet and every other body
+     */
+    void computeAccelerations() {
+        if(!bruteForce)
+            tree.build(x, y, mass, size);
+        if(stepper == null)
+            computeAccelerations(0, size);
+        else
+            stepper.forEachChunk(size, this::computeAccelerations);
+        accelerationsValid = true;
+    }
+    
+    /**
+     * Finds the acceleration of the bodies at the positions from start inclusive to end exclusive in the order that they are
+     * accelerated in
+     * @param start The position of the first body
+     * @param end   One more than the position of the last body
+     */
+    private void computeAccelerations(int start, int end) {
+        for(int position = start; position < end; ++position) {
+            //Goes through the bodies in the tree's order so that consecutive bodies reuse the same nodes from the cache
+            int i = bruteForce ? position : tree.getOrderedBody(position);
+            
+            //The planet at the origin is always summed exactly
+            double distanceSquared = x[i] * x[i] + y[i] * y[i];
+            double strength = -gravitationalParameter / (distanceSquared * Math.sqrt(distanceSquared));
+            ax[i] = strength * x[i];
+            ay[i] = strength * y[i];
+            
+            if(bruteForce) {
+                for(int j = 0; j < size; ++j) {
+                    if(j == i)
+                        continue;
+                    double dx = x[j] - x[i];
+                    double dy = y[j] - y[i];
+                    double softenedSquared = dx * dx + dy * dy + softening;
+                    double pull = Orbit.GRAVITATIONAL_CONSTANT * mass[j] / (softenedSquared * Math.sqrt(softenedSquared));
+                    ax[i] += pull * dx;
+                    ay[i] += pull * dy;
+                }
+            }
+            else
+                tree.accelerate(i, x, y, mass, openingAngle, softening, ax, ay);
+        }
+    }
+    
+    /**
+     * Returns the total kinetic and potential energy of the system in joules, which is summed exactly and is therefore only
+     * meant for checking how well the energy is conserved
+     * @return The total energy of the system
+     */
+    double getEnergy() {
+        double energy = 0;
+        for(int i = 0; i < size; ++i) {
+            energy += 0.5 * mass[i] * (vx[i] * vx[i] + vy[i] * vy[i]);
+            energy -= gravitationalParameter * mass[i] / Math.sqrt(x[i] * x[i] + y[i] * y[i]);
+            for(int j = i + 1; j < size; ++j) {
+                double dx = x[j] - x[i];
+                double dy = y[j] - y[i];
+                energy -= Orbit.GRAVITATIONAL_CONSTANT * mass[i] * mass[j] / Math.sqrt(dx * dx + dy * dy + softening);
+            }
+        }
+        return energy;
+    }
+    
+    /**
+     * Sets the largest ratio of a tree node's side length to its distance at which the node's bodies are treated as one mass,
+     * where smaller angles are more accurate and slower
+     * @param openingAngle The opening angle
+     */
+    void setOpeningAngle(double openingAngle) {
+        this.openingAngle = openingAngle;
+        accelerationsValid = false;
+    }
+    
+    /**
+     * Sets the softening length that keeps the pull between two bodies finite when they pass very close to each other
+     * @param softeningLength The softening length in meters
+     */
+    void setSofteningLength(double softeningLength) {
+        softening = softeningLength * softeningLength;
+        accelerationsValid = false;
+    }
+    
+    /**
+     * Sets whether the pull between bodies is summed exactly over every pair instead of being approximated with the tree
+     * @param bruteForce Whether to use the exact O(n^2) sum
+     */
+    void setBruteForce(boolean bruteForce) {
+        this.bruteForce = bruteForce;
+        accelerationsValid = false;
+    }
+    
+    /**
+     * Sets the integrator that the bodies are advanced with
+     * @param integrator The integrator to use
+     */
+    void setIntegrator(Integrator integrator) {
+        this.integrator = integrator;
+    }
+    
+    /**
+     * Sets the stepper that splits finding the accelerations across threads
+     * @param stepper The stepper to use, or null to find every acceleration on the calling thread
+     */
+    void setStepper(ParallelStepper stepper) {
+        this.stepper = stepper;
+    }
+    
+    /**
+     * Returns the number of bodies in the system
+     * @return The number of bodies
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the x-coordinate of a body in meters relative to the planet
+     * @param i The index of the body
+     * @return The x-coordinate of the body
+     */
+    double getX(int i) {
+        return x[i];
+    }
+    
+    /**
+     * Returns the y-coordinate of a body in meters relative to the planet
+     * @param i The index of the body
+     * @return The y-coordinate of the body
+     */
+    double getY(int i) {
+        return y[i];
+    }
+    
+    /**
+     * Returns the x-component of a body's velocity in meters/second
+     * @param i The index of the body
+     * @return The x-component of the velocity
+     */
+    double getVelocityX(int i) {
+        return vx[i];
+    }
+    
+    /**
+     * Returns the y-component of a body's velocity in meters/second
+     * @param i The index of the body
+     * @return The y-component of the velocity
+     */
+    double getVelocityY(int i) {
+        return vy[i];
+    }
+    
+    /**
+     * Returns the distance between the planet and a body in meters
+     * @param i The index of the body
+     * @return The radius of the body
+     */
+    double getRadius(int i) {
+        return Math.sqrt(x[i] * x[i] + y[i] * y[i]);
+    }
+    
+    /**
+     * Returns the net velocity of a body
+     * @param i The index of the body
+     * @return The speed of the body
+     */
+    double getVelocity(int i) {
+        return Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i]);
+    }
+    
+    /**
+     * Returns the component of a body's velocity perpendicular to its radius, which is positive when moving counterclockwise
+     * @param i The index of the body
+     * @return The transverse velocity of the body
+     */
+    double getTransverseVelocity(int i) {
+        return (x[i] * vy[i] - y[i] * vx[i]) / getRadius(i);
+    }
+    
+    /**
+     * Returns the component of a body's velocity parallel to its radius, which is positive when moving away from the planet
+     * @param i The index of the body
+     * @return The radial velocity of the body
+     */
+    double getRadialVelocity(int i) {
+        return (x[i] * vx[i] + y[i] * vy[i]) / getRadius(i);
+    }
+    
+    /**
+     * Returns the x-component of a body's acceleration in meters/second^2 at its current position
+     * @param i The index of the body
+     * @return The x-component of the acceleration
+     */
+    double getAccelerationX(int i) {
+        if(!accelerationsValid)
+            computeAccelerations();
+        return ax[i];
+    }
+    
+    /**
+     * Returns the y-component of a body's acceleration in meters/second^2 at its current position
+     * @param i The index of the body
+     * @return The y-component of the acceleration
+     */
+    double getAccelerationY(int i) {
+        if(!accelerationsValid)
+            computeAccelerations();
+        return ay[i];
+    }
+    
+}
@@ -0,0 +1,248 @@
+package kepler;
+
+/**
+ * The headless simulation core of a satellite's orbit, which can be stepped and queried without a display or any AWT classes
+ */
+class Orbit {
+    /**
+     * The physics gravitational constant accurate to some degree
+     */
+    static final double GRAVITATIONAL_CONSTANT = 6.671281903963040991511534289 * Math.pow(10, -11);
+    
+    /**
+     * The distance in pixels between the centers of the satellite and planet images below which the images overlap, which is
+     * the sum of the radii of the 30 pixel satellite and the 75 pixel planet
+     */
+    private static final double COLLISION_DISTANCE_VISUAL = (30 + 75) / 2.0;
+    
+    /**
+     * The values of the orbit that do not change over time
+     */
+    private final OrbitElements elements;
+    
+    /**
+     * Solves for the position of the satellite at any time along the orbit
+     */
+    private final KeplerPropagator propagator;
+    
+    /**
+     * The sampled period that the satellite's state is interpolated from where it is accurate, or null if the state is always
+     * solved for with the propagator
+     */
+    private final Ephemeris ephemeris;
+    
+    /**
+     * The values interpolated from the ephemeris, which are kept to avoid creating an array every step
+     */
+    private final double[] interpolated = new double[Ephemeris.SIZE];
+    
+    /**
+     * The time in seconds since the satellite was last at the periapsis at time 0
+     */
+    private double time = 0;
+    
+    /**
+     * The orbitAngle from 0 to 2π of the satellite's center relative to the positive x-axis with an origin at the planet's center
+     */
+    private double orbitAngle = 0;
+    
+    /**
+     * The instantaneous distance between the planet and the satellite in pixels
+     */
+    private double visualRadius;
+    
+    /**
+     * The instantaneous distance between the planet and the satellite in meters
+     */
+    private double radius;
+    
+    /**
+     * The net velocity of the satellite
+     */
+    private double velocity;
+    
+    /**
+     * The component of the velocity perpendicular to the radius
+     */
+    private double transverseVelocity;
+    
+    /**
+     * The component of velocity parallel to the radius, which is positive when moving away from the planet
+     */
+    private double radialVelocity;
+    
+    /**
+     * Orbit constructor that sets the actual and visual axes and the initial state of the satellite at the periapsis
+     * @param radiusOne  One of the actual radii of the elliptical orbits in meters
+     * @param radiusTwo  One of the actual radii of the elliptical orbits in meters
+     * @param planetMass The mass in kg of the orbited planet
+     * @param viewWidth  The width in pixels of the view that the orbit is scaled to fit
+     * @param viewHeight The height in pixels of the view that the orbit is scaled to fit
+     */
+    Orbit(double radiusOne, double radiusTwo, double planetMass, int viewWidth, int viewHeight) {
+        this(new OrbitElements(radiusOne, radiusTwo, planetMass, viewWidth, viewHeight));
+    }
+    
+    /**
+     * Orbit constructor that takes in the already computed elements of the orbit and starts the satellite at the periapsis
+     * @param elements The values of the orbit that do not change over time
+     */
+    Orbit(OrbitElements elements) {
+        this(elements, null);
+    }
+    
+    /**
+     * Orbit constructor that interpolates the satellite's state from a sampled period instead of solving for it
+     * @param elements  The values of the orbit that do not change over time
+     * @param ephemeris The sampled period of the orbit, or null to solve for the state with the propagator
+     */
+    Orbit(OrbitElements elements, Ephemeris ephemeris) {
+        this.elements = elements;
+        this.ephemeris = ephemeris;
+        propagator = new KeplerPropagator(elements);
+        setTime(0);
+    }
+    
+    /**
+     * Returns whether the satellite and planet images would overlap on an orbit with the given radii once it is scaled to the
+     * view. They are closest at the periapsis, so this only compares the scaled periapsis with the sum of the images' radii and
+     * allocates nothing.
+     * @param radiusOne  One of the actual radii of the elliptical orbit in meters
+     * @param radiusTwo  One of the actual radii of the elliptical orbit in meters
+     * @param viewWidth  The width in pixels of the view that the orbit is scaled to fit
+     * @param viewHeight The height in pixels of the view that the orbit is scaled to fit
+     * @return Whether or not the satellite and planet would collide
+     */
+    static boolean intersectsPlanet(double radiusOne, double radiusTwo, int viewWidth, int viewHeight) {
+        double radiusMajor = Math.max(radiusOne, radiusTwo);
+        double radiusMinor = radiusOne + radiusTwo - radiusMajor;
+        double radiusMajorVisual = OrbitElements.getRadiusMajorVisual(radiusMajor, radiusMinor, viewWidth, viewHeight);
+        double radiusMinorVisual = radiusMinor / radiusMajor * radiusMajorVisual;
+        double periapsisVisual = radiusMajorVisual - Math.sqrt((radiusMajorVisual - radiusMinorVisual) * (radiusMajorVisual + radiusMinorVisual));
+        return periapsisVisual < COLLISION_DISTANCE_VISUAL;
+    }
+    
+    /**
+     * Advances the satellite along its orbit by the given amount of simulated time
+     * @param seconds The amount of time in seconds to advance the satellite by
+     */
+    void step(double seconds) {
+        setTime(time + seconds);
+    }
+    
+    /**
+     * Moves the satellite directly to where it is at the given time without stepping through the times in between
+     * @param time The time in seconds since the satellite was at the periapsis
+     */
+    void setTime(double time) {
+        //Keeps the stored time within one period since the orbit repeats and large times would otherwise lose precision
+        this.time = time % elements.getPeriod();
+        if(ephemeris != null && ephemeris.interpolate(this.time, interpolated)) {
+            orbitAngle = interpolated[Ephemeris.ANGLE];
+            radius = interpolated[Ephemeris.RADIUS];
+            radialVelocity = interpolated[Ephemeris.RADIAL_VELOCITY];
+            transverseVelocity = interpolated[Ephemeris.TRANSVERSE_VELOCITY];
+            velocity = interpolated[Ephemeris.VELOCITY];
+        }
+        else {
+            double eccentricAnomaly = propagator.getEccentricAnomaly(this.time);
+            orbitAngle = propagator.getTrueAnomalyFromEccentric(eccentricAnomaly);
+            radius = propagator.getRadiusFromEccentric(eccentricAnomaly);
+            update();
+        }
+        visualRadius = radius * elements.getVisualScale();
+    }
+    
+    /**
+     * Recalculates the velocity values from the orbital elements and the current true anomaly using
+     * v_r = sqrt(GM/p) * e * sin(v) and v_t = sqrt(GM/p) * (1 + e * cos(v))
+     */
+    private void update() {
+        double velocityScale = Math.sqrt(elements.getGravitationalParameter() / elements.getSemiLatusRectum());
+        radialVelocity = velocityScale * elements.getEccentricity() * Math.sin(orbitAngle);
+        transverseVelocity = velocityScale * (1 + elements.getEccentricity() * Math.cos(orbitAngle));
+        velocity = Math.sqrt(elements.getGravitationalParameter() * (2 / radius - 1 / elements.getRadiusMajor()));
+    }
+    
+    /**
+     * Writes the current position and velocity of the satellite into an array in the layout given by StateVector
+     * @param state  The array to write the state into
+     * @param offset The index in the array to start writing at
+     */
+    void getState(double[] state, int offset) {
+        StateVector.write(elements.getGravitationalParameter(), elements.getSemiLatusRectum(), elements.getEccentricity(), orbitAngle, radius, state, offset);
+    }
+    
+    /**
+     * Calculates and returns the instantaneous angular velocity of the satellite in radians/second using ω = b/r^2 * sqrt(GM/a)
+     * @return Instantaneous angular velocity
+     */
+    double getAngularVelocity() {
+        return elements.getRadiusMinor() / Math.pow(radius, 2) * Math.sqrt(elements.getGravitationalParameter() / elements.getRadiusMajor());
+    }
+    
+    /**
+     * Returns the time in seconds since the satellite was last at the periapsis
+     * @return The time within the current period
+     */
+    double getTime() {
+        return time;
+    }
+    
+    /**
+     * Returns the current angle of the satellite relative to the positive x-axis with an origin at the planet's center
+     * @return The current orbitAngle
+     */
+    double getOrbitAngle() {
+        return orbitAngle;
+    }
+    
+    /**
+     * Returns the instantaneous distance between the planet and the satellite in pixels
+     * @return Instantaneous visual radius
+     */
+    double getVisualRadius() {
+        return visualRadius;
+    }
+    
+    /**
+     * Returns the values of the orbit that do not change over time
+     * @return The orbit's elements
+     */
+    OrbitElements getElements() {
+        return elements;
+    }
+    
+    /**
+     * Returns velocity of satellite
+     * @return Satellite velocity
+     */
+    double getVelocity() {
+        return velocity;
+    }
+    
+    /**
+     * Returns the component of the velocity of the satellite that is perpendicular to the radius
+     * @return Satellite velocity component perpendicular to radius
+     */
+    double getTransverseVelocity() {
+        return transverseVelocity;
+    }
+    
+    /**
+     * Returns the component of the velocity of the satellite that is parallel to the radius
+     * @return Satellite velocity component parallel to radius
+     */
+    double getRadialVelocity() {
+        return radialVelocity;
+    }
+    
+    /**
+     * Returns instantaneous distance between the centers of masses of the orbited mass and orbiting mass
+     * @return Instantaneous radius
+     */
+    double getRadius() {
+        return radius;
+    }
+    
+}
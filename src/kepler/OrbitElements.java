@@ -0,0 +1,224 @@
+package kepler;
+
+/**
+ * The values that describe an orbit and stay the same for as long as it is shown, which are computed once when the orbit is
+ * chosen and can then be shared by everything that draws or advances it
+ */
+final class OrbitElements {
+    /**
+     * The padding in pixels kept between the visual orbit and the edges of the view, which accounts for the satellite's size
+     */
+    static final int VISUAL_PADDING = 30 + 35;
+    
+    /**
+     * The semi-major and semi-minor axes of the ellipse in meters
+     */
+    private final double radiusMajor, radiusMinor;
+    
+    /**
+     * The eccentricity of the orbit using e = c/a
+     */
+    private final double eccentricity;
+    
+    /**
+     * The distance in meters between the center of the ellipse and the right focus, where the planet sits
+     */
+    private final double focalDistance;
+    
+    /**
+     * The mass in kg of the orbited planet
+     */
+    private final double planetMass;
+    
+    /**
+     * The gravitational constant multiplied by the mass of the orbited planet
+     */
+    private final double gravitationalParameter;
+    
+    /**
+     * The semi-latus rectum of the orbit in meters using p = b^2/a, which is the radius when the satellite is a quarter of the
+     * way around from the periapsis
+     */
+    private final double semiLatusRectum;
+    
+    /**
+     * The average angular velocity of the satellite in radians/second using n = sqrt(GM/a^3)
+     */
+    private final double meanMotion;
+    
+    /**
+     * The time in seconds it takes the satellite to orbit once around the planet
+     */
+    private final double period;
+    
+    /**
+     * The smallest and largest distances in meters between the planet and the satellite during a period
+     */
+    private final double periapsis, apoapsis;
+    
+    /**
+     * The number of pixels per meter that the orbit is scaled by to fit the view
+     */
+    private final double visualScale;
+    
+    /**
+     * OrbitElements constructor that takes in the radii of the orbit, the planet's mass and the view it is scaled to fit
+     * @param radiusOne  One of the actual radii of the elliptical orbit in meters
+     * @param radiusTwo  One of the actual radii of the elliptical orbit in meters
+     * @param planetMass The mass in kg of the orbited planet
+     * @param viewWidth  The width in pixels of the view that the orbit is scaled to fit
+     * @param viewHeight The height in pixels of the view that the orbit is scaled to fit
+     */
+    OrbitElements(double radiusOne, double radiusTwo, double planetMass, int viewWidth, int viewHeight) {
+        this.planetMass = planetMass;
+        
+        //Sets the major axis to the larger of the two given radii
+        radiusMajor = Math.max(radiusOne, radiusTwo);
+        radiusMinor = radiusOne + radiusTwo - radiusMajor;
+        focalDistance = Math.sqrt((radiusMajor - radiusMinor) * (radiusMajor + radiusMinor));
+        eccentricity = focalDistance / radiusMajor;
+        
+        gravitationalParameter = Orbit.GRAVITATIONAL_CONSTANT * planetMass;
+        semiLatusRectum = radiusMinor * radiusMinor / radiusMajor;
+        periapsis = radiusMajor - focalDistance;
+        apoapsis = radiusMajor + focalDistance;
+        meanMotion = Math.sqrt(gravitationalParameter / Math.pow(radiusMajor, 3));
+        period = 2 * Math.PI / meanMotion;
+        visualScale = getRadiusMajorVisual(radiusMajor, radiusMinor, viewWidth, viewHeight) / radiusMajor;
+    }
+    
+    /**
+     * Returns the semi-major axis in pixels that an orbit is scaled to, based on which way the full elliptical orbit fits
+     * @param radiusMajor The actual semi-major axis in meters
+     * @param radiusMinor The actual semi-minor axis in meters
+     * @param viewWidth   The width in pixels of the view that the orbit is scaled to fit
+     * @param viewHeight  The height in pixels of the view that the orbit is scaled to fit
+     * @return The scaled semi-major axis
+     */
+    static double getRadiusMajorVisual(double radiusMajor, double radiusMinor, int viewWidth, int viewHeight) {
+        if(radiusMinor / radiusMajor * (viewWidth / 2 - VISUAL_PADDING) <= viewHeight / 2 - VISUAL_PADDING)
+            return viewWidth / 2 - VISUAL_PADDING;
+        return radiusMajor / radiusMinor * (viewHeight / 2 - VISUAL_PADDING);
+    }
+    
+    /**
+     * Returns the semi-major axis of the ellipse
+     * @return The semi-major axis in meters
+     */
+    double getRadiusMajor() {
+        return radiusMajor;
+    }
+    
+    /**
+     * Returns the semi-minor axis of the ellipse
+     * @return The semi-minor axis in meters
+     */
+    double getRadiusMinor() {
+        return radiusMinor;
+    }
+    
+    /**
+     * Returns the eccentricity of the orbit
+     * @return The eccentricity from 0 to less than 1
+     */
+    double getEccentricity() {
+        return eccentricity;
+    }
+    
+    /**
+     * Returns the distance between the center of the ellipse and the planet at its right focus
+     * @return The focal distance in meters
+     */
+    double getFocalDistance() {
+        return focalDistance;
+    }
+    
+    /**
+     * Return's the mass of the orbited planet
+     * @return The mass of the planet
+     */
+    double getPlanetMass() {
+        return planetMass;
+    }
+    
+    /**
+     * Returns the gravitational constant multiplied by the mass of the orbited planet
+     * @return The gravitational parameter in m^3/s^2
+     */
+    double getGravitationalParameter() {
+        return gravitationalParameter;
+    }
+    
+    /**
+     * Returns the semi-latus rectum of the orbit
+     * @return The semi-latus rectum in meters
+     */
+    double getSemiLatusRectum() {
+        return semiLatusRectum;
+    }
+    
+    /**
+     * Returns the average angular velocity of the satellite
+     * @return The mean motion in radians/second
+     */
+    double getMeanMotion() {
+        return meanMotion;
+    }
+    
+    /**
+     * Returns the time it takes the satellite to orbit once around the planet
+     * @return The period in seconds
+     */
+    double getPeriod() {
+        return period;
+    }
+    
+    /**
+     * Gets the smallest distance between the orbited mass and orbiting mass during a period
+     * @return Periapsis of orbit
+     */
+    double getPeriapsis() {
+        return periapsis;
+    }
+    
+    /**
+     * Gets the largest distance between the centers of masses of the orbited mass and orbiting mass during a period
+     * @return Apoapsis of orbit
+     */
+    double getApoapsis() {
+        return apoapsis;
+    }
+    
+    /**
+     * Returns the number of pixels per meter that the orbit is scaled by to fit the view
+     * @return The visual scale
+     */
+    double getVisualScale() {
+        return visualScale;
+    }
+    
+    /**
+     * Returns the scaled semi-major axis of the ellipse in pixels
+     * @return The scaled semi-major axis
+     */
+    double getRadiusMajorVisual() {
+        return radiusMajor * visualScale;
+    }
+    
+    /**
+     * Returns the scaled semi-minor axis of the ellipse in pixels
+     * @return The scaled semi-minor axis
+     */
+    double getRadiusMinorVisual() {
+        return radiusMinor * visualScale;
+    }
+    
+    /**
+     * Returns the distance in pixels between the center of the ellipse and the planet at its right focus
+     * @return The scaled focal distance
+     */
+    double getFocalDistanceVisual() {
+        return focalDistance * visualScale;
+    }
+    
+}
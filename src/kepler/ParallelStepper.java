@@ -0,0 +1,151 @@
+package kepler;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances a satellite population by splitting it into chunks that are stepped on a fork-join pool, which gives exactly the
+ * same results as stepping on one thread since every satellite is advanced independently of the others. Any other work that
+ * is independent per satellite can be split the same way with forEachChunk.
+ */
+class ParallelStepper {
+    /**
+     * The number of satellites that are stepped together by one task, which keeps each task's slice of every column small
+     * enough to stay in cache while being large enough that the cost of forking is negligible
+     */
+    static final int DEFAULT_CHUNK_SIZE = 2048;
+    
+    /**
+     * The pool that the chunks are stepped on, or null if the population is stepped on the calling thread
+     */
+    private final ForkJoinPool pool;
+    
+    /**
+     * The largest number of satellites that are stepped by one task
+     */
+    private final int chunkSize;
+    
+    /**
+     * ParallelStepper constructor that uses as many threads as there are available processors
+     */
+    ParallelStepper() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * ParallelStepper constructor that takes in the number of threads to step with
+     * @param parallelism The number of threads to step with, where 1 steps on the calling thread
+     */
+    ParallelStepper(int parallelism) {
+        this(parallelism, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * ParallelStepper constructor that takes in the number of threads to step with and the number of satellites per task
+     * @param parallelism The number of threads to step with, where 1 steps on the calling thread
+     * @param chunkSize   The largest number of satellites that are stepped by one task
+     */
+    ParallelStepper(int parallelism, int chunkSize) {
+        if(parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        if(chunkSize < 1)
+            throw new IllegalArgumentException("The chunk size must be at least 1");
+        pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Advances every satellite in the population by the given amount of simulated time and waits until all of them are done
+     * @param population The population of satellites to advance
+     * @param seconds    The amount of time in seconds to advance the satellites by
+     */
+    void step(SatellitePopulation population, double seconds) {
+        forEachChunk(population.size(), (start, end) -> population.step(start, end, seconds));
+    }
+    
+    /**
+     * Runs the given action over the indices from 0 to size in chunks and waits until all of them are done
+     * @param size   One more than the last index to run the action over
+     * @param action The action that is run for each chunk of indices
+     */
+    void forEachChunk(int size, RangeAction action) {
+        if(pool == null || size <= chunkSize)
+            action.run(0, size);
+        else
+            pool.invoke(new ChunkTask(action, 0, size));
+    }
+    
+    /**
+     * Returns the number of threads that the population is stepped with
+     * @return The parallelism level
+     */
+    int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+    
+    /**
+     * Stops the threads of the pool once they are no longer needed
+     */
+    void shutdown() {
+        if(pool != null)
+            pool.shutdown();
+    }
+    
+    /**
+     * An action that is run over a range of indices
+     */
+    interface RangeAction {
+        /**
+         * Runs the action over the indices from start inclusive to end exclusive
+         * @param start The first index to run the action over
+         * @param end   One more than the last index to run the action over
+         */
+        void run(int start, int end);
+    }
+    
+    /**
+     * The task that runs an action over a range of indices, splitting it in half until each half is no more than one chunk
+     */
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        /**
+         * The action that is run for each chunk of indices
+         */
+        private final RangeAction action;
+        
+        /**
+         * The first index to run the action over and one more than the last
+         */
+        private final int start, end;
+        
+        /**
+         * ChunkTask constructor that takes in the action and the range of indices to run it over
+         * @param action The action that is run for each chunk of indices
+         * @param start  The first index to run the action over
+         * @param end    One more than the last index to run the action over
+         */
+        ChunkTask(RangeAction action, int start, int end) {
+            this.action = action;
+            this.start = start;
+            this.end = end;
+        }
+        
+        /**
+         * Runs the action directly if the range fits in one chunk and otherwise splits it at a chunk boundary
+         */
+        @Override
+        protected void compute() {
+            if(end - start <= chunkSize)
+                action.run(start, end);
+            else {
+                //Splits on a multiple of the chunk size so that no two tasks share a partial chunk
+                int middle = start + (end - start) / chunkSize / 2 * chunkSize;
+                if(middle == start)
+                    middle += chunkSize;
+                invokeAll(new ChunkTask(action, start, middle), new ChunkTask(action, middle, end));
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,280 @@
+package kepler;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * A folder of images that were already decoded and converted to the screen's format, so that later starts can copy their
+ * pixels straight into a new image instead of decoding and converting the PNG again
+ *
+ * Each resource has one file holding a hash of the resource's PNG, a description of the color model that its pixels are in
+ * and then the pixels themselves. A file is only used if both the hash and the color model match, so it is written again
+ * whenever the PNG changes or the program runs on a screen with a different pixel format. Only images whose pixels are packed
+ * into one int each are cached, which is what compatible images are on every common screen.
+ *
+ * Since the hash is of a PNG that anyone with the program can read, it does not stop another user from planting pixels. The
+ * folder is therefore created so that only its owner can use it, and a folder that belongs to another user or that other
+ * users can write to is not used at all.
+ */
+class PixelCache {
+    /**
+     * The first int of every cache file, which is written in the native byte order so files from another byte order are missed
+     */
+    private static final int MAGIC = 0x4B505843;
+    
+    /**
+     * The version of the cache file layout, which is changed whenever the layout is
+     */
+    private static final int VERSION = 1;
+    
+    /**
+     * The length of the header at the start of every cache file, which holds the magic number, the version, the width, the
+     * height and the transparency
+     */
+    private static final int HEADER_BYTES = 20;
+    
+    /**
+     * The folder that the cache files are kept in
+     */
+    private final Path directory;
+    
+    /**
+     * Whether it has already been printed that the folder is not used, so that it is only printed once
+     */
+    private boolean warned = false;
+    
+    /**
+     * PixelCache constructor that takes in the folder to keep the cache files in, which is created when the first file is written
+     * @param directory The folder of cache files
+     */
+    PixelCache(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Returns the hash that a resource's cache file is checked against
+     * @param content The encoded bytes of the resource
+     * @return The SHA-256 hash of the bytes
+     */
+    static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        }
+        catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM has SHA-256", e);
+        }
+    }
+    
+    /**
+     * Returns a resource's cached image if there is one for the same PNG in the same color model
+     * @param resource    The path of the image resource
+     * @param hash        The hash of the resource's encoded bytes
+     * @param colorModels Returns the color model that the screen uses for images of a given transparency
+     * @return The image with its cached pixels, or null if the resource is not cached for this PNG and screen
+     */
+    BufferedImage get(String resource, byte[] hash, IntFunction<ColorModel> colorModels) {
+        if(!isTrusted())
+            return null;
+        Path path = getPath(resource);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //Reads the header without mapping the file, so that a file that is about to be replaced is never left mapped
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+            if(!readFully(channel, header) || header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                return null;
+            int width = header.getInt(8), height = header.getInt(12), transparency = header.getInt(16);
+            ColorModel colorModel = colorModels.apply(transparency);
+            byte[] expected = getKey(hash, colorModel);
+            ByteBuffer key = ByteBuffer.allocate(expected.length);
+            if(!readFully(channel, key) || !Arrays.equals(key.array(), expected))
+                return null;
+            long offset = HEADER_BYTES + expected.length;
+            if(width < 1 || height < 1 || channel.size() != offset + 4L * width * height)
+                return null;
+            
+            BufferedImage image = new BufferedImage(colorModel, colorModel.createCompatibleWritableRaster(width, height), colorModel.isAlphaPremultiplied(), null);
+            if(!isCacheable(image))
+                return null;
+            
+            //Copies the mapped pixels a row at a time, which leaves the image able to be accelerated unlike taking its array
+            IntBuffer pixels = channel.map(FileChannel.MapMode.READ_ONLY, offset, 4L * width * height).order(ByteOrder.nativeOrder()).asIntBuffer();
+            WritableRaster raster = image.getRaster();
+            int[] row = new int[width];
+            for(int y = 0; y < height; ++y) {
+                pixels.get(row);
+                raster.setDataElements(0, y, width, 1, row);
+            }
+            return image;
+        }
+        catch(NoSuchFileException e) {
+            return null;
+        }
+        catch(IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Writes a resource's converted image to its cache file, replacing whatever was cached for it before
+     * @param resource The path of the image resource
+     * @param hash     The hash of the resource's encoded bytes
+     * @param image    The image converted to the screen's format, which is not cached if its pixels are not packed into ints
+     */
+    void put(String resource, byte[] hash, BufferedImage image) {
+        if(!isCacheable(image))
+            return;
+        int width = image.getWidth(), height = image.getHeight();
+        byte[] key = getKey(hash, image.getColorModel());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + key.length + 4 * width * height).order(ByteOrder.nativeOrder());
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(image.getTransparency()).put(key);
+        IntBuffer pixels = buffer.asIntBuffer();
+        int[] row = new int[width];
+        for(int y = 0; y < height; ++y) {
+            image.getRaster().getDataElements(0, y, width, 1, row);
+            pixels.put(row);
+        }
+        
+        //Writes to a temporary file first so that another start never reads a half-written file
+        try {
+            if(!isTrusted())
+                return;
+            if(directory.getFileSystem().supportedFileAttributeViews().contains("posix"))
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            else
+                Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "pixels", ".tmp");
+            try {
+                try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    buffer.rewind();
+                    while(buffer.hasRemaining())
+                        channel.write(buffer);
+                }
+                Files.move(temporary, getPath(resource), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        catch(IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Returns whether the cache folder can be used, which it cannot if it belongs to another user or other users can write to
+     * it, since they could then plant pixels that would be drawn. A folder that does not exist yet can be used since it is
+     * created for this user when the first file is written.
+     * @return Whether the folder can be read from and written to
+     */
+    private synchronized boolean isTrusted() {
+        try {
+            UserPrincipal owner = Files.getOwner(directory);
+            UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+            boolean trusted = owner.equals(user);
+            PosixFileAttributeView posix = Files.getFileAttributeView(directory, PosixFileAttributeView.class);
+            if(trusted && posix != null) {
+                Set<PosixFilePermission> permissions = posix.readAttributes().permissions();
+                trusted = !permissions.contains(PosixFilePermission.GROUP_WRITE) && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+            }
+            if(!trusted && !warned) {
+                warned = true;
+                System.err.println("Not using the pixel cache in " + directory + " since it belongs to another user or other users can write to it");
+            }
+            return trusted;
+        }
+        catch(NoSuchFileException e) {
+            return true;
+        }
+        catch(IOException | UnsupportedOperationException e) {
+            if(!warned) {
+                warned = true;
+                System.err.println("Not using the pixel cache in " + directory + " since its owner cannot be checked: " + e);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Returns whether an image's pixels are each packed into one int with no padding, which is the only layout that is cached
+     * @param image The image to check
+     * @return Whether the image can be cached
+     */
+    private static boolean isCacheable(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        return raster.getDataBuffer().getDataType() == DataBuffer.TYPE_INT && raster.getSampleModel() instanceof SinglePixelPackedSampleModel && raster.getNumDataElements() == 1;
+    }
+    
+    /**
+     * Returns the path of a resource's cache file
+     * @param resource The path of the image resource
+     * @return The path of the file in the cache folder
+     */
+    private Path getPath(String resource) {
+        return directory.resolve(resource.replaceFirst("^/", "").replace('/', '_') + ".pixels");
+    }
+    
+    /**
+     * Returns the bytes that a cache file has to hold after its header to be used, which are the PNG's hash and a description
+     * of the color model that stays the same from one start to the next
+     * @param hash       The hash of the resource's encoded bytes
+     * @param colorModel The color model of the cached pixels
+     * @return The hash followed by the color model's description
+     */
+    private static byte[] getKey(byte[] hash, ColorModel colorModel) {
+        StringBuilder description = new StringBuilder(colorModel.getClass().getName());
+        description.append(' ').append(colorModel.getPixelSize()).append(' ').append(colorModel.getTransferType()).append(' ').append(colorModel.getTransparency()).append(' ').append(colorModel.isAlphaPremultiplied());
+        ColorSpace colorSpace = colorModel.getColorSpace();
+        description.append(' ').append(colorSpace.getType()).append(' ').append(colorSpace.isCS_sRGB());
+        if(colorModel instanceof DirectColorModel) {
+            DirectColorModel direct = (DirectColorModel) colorModel;
+            description.append(' ').append(Integer.toHexString(direct.getRedMask())).append(' ').append(Integer.toHexString(direct.getGreenMask())).append(' ').append(Integer.toHexString(direct.getBlueMask())).append(' ').append(Integer.toHexString(direct.getAlphaMask()));
+        }
+        
+        //Pads the key to a whole number of ints so that the pixels after it are aligned
+        byte[] text = description.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] key = new byte[(hash.length + 4 + text.length + 3) / 4 * 4];
+        ByteBuffer.wrap(key).put(hash).putInt(text.length).put(text);
+        return key;
+    }
+    
+    /**
+     * Reads from a channel until a buffer is full or the channel ends
+     * @param channel The channel to read from
+     * @param buffer  The buffer to fill
+     * @return Whether the buffer was filled
+     * @throws IOException If the channel cannot be read
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer) == -1)
+                return false;
+        }
+        return true;
+    }
+    
+}
@@ -3,28 +3,26 @@ package kepler;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Ellipse2D;
-import java.awt.image.BufferedImage;
+import java.io.IOException;
 
 /**
  * The class that represents the planet that the satellite orbits
  */
 class Planet {
     /**
-     * The height and width of the ellipse that is the planet
+     * The current index of the planet pictures
      */
-    private static final int PLANET_HEIGHT_WIDTH = 75;
+    private int planetFrame = 287;
     
     /**
-     * The current index of the planet pictures
+     * The time in nanoseconds that each picture of the planet is shown for, which is 9 of the repaintTimer's 2 millisecond ticks
      */
-    private int planetFrame = 287;
+    private static final long PLANET_FRAME_NANOS = 9 * 2000000;
     
     /**
-     * Used to determine when to shift the planetFrame to the next
+     * The time in nanoseconds that the planetFrame was last shifted at, or 0 before the planet is first drawn
      */
-    private int planetCounter = 0;
+    private long lastPlanetFrame = 0;
     
     /**
      * The mass in kg of the planet
@@ -37,28 +35,23 @@ class Planet {
     private double centerX, centerY;
     
     /**
-     * Image that shows the planet being orbited (actually a picture of a star but whatever)
+     * The pictures that show the planet being orbited (actually a picture of a star but whatever), which are either packed
+     * into one atlas that is decoded at once or decoded a few at a time just before they are shown
      */
-    private static BufferedImage[] planetImage = new BufferedImage[288];
+    private static AnimationFrames planetImage;
     
     /**
-     * The ellipse representing the planet that the satellite orbits
-     */
-    private Ellipse2D planet;
-    
-    /**
-     * The satellite that orbits the planet
-     */
-    private Satellite satellite;
-    
-    /**
-     * Planet constructor that takes in the mass of the planet as an input and gets the planet picture
+     * Planet constructor that takes in the mass of the planet as an input and gets the planet pictures
      * @param m The mass of the planet
      */
     Planet(double m) {
         if(Runner.isFirstTime()) {
-            for(int i = 0; i < planetImage.length; ++i)
-                planetImage[i] = Runner.getCompatibleImage("/star/star" + i + ".png");
+            try {
+                planetImage = Runner.getStarFrames();
+            }
+            catch(IOException e) {
+                e.printStackTrace();
+            }
         }
         mass = m;
     }
@@ -70,20 +63,31 @@ class Planet {
     void draw(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        satellite.drawOrbit(g2d);
-        AffineTransform trans = new AffineTransform();
-        trans.translate(centerX - planetImage[planetFrame].getWidth() / 2, centerY - planetImage[planetFrame].getHeight() / 2);
-        g2d.drawImage(planetImage[planetFrame], trans, null);
+        planetImage.draw(g2d, planetFrame, (int) Math.floor(centerX - planetImage.getFrameWidth() / 2), (int) Math.floor(centerY - planetImage.getFrameHeight() / 2));
         
-        //If the planet counter increases to a certain number, the planet frame is shifted and the planet counter is reset
-        if(++planetCounter % 9 == 0) {
-            //The planet frame is reset after reaching the last frame
-            if(--planetFrame == -1)
-                planetFrame = 287;
-            planetCounter = 0;
+        /*
+         * Shifts the planet frame by however many frame times have passed, so the planet turns at the same speed no matter how
+         * often it is drawn. The planet frame is reset after reaching the last frame.
+         */
+        long now = System.nanoTime();
+        if(lastPlanetFrame == 0)
+            lastPlanetFrame = now;
+        long shifts = (now - lastPlanetFrame) / PLANET_FRAME_NANOS;
+        if(shifts > 0) {
+            planetFrame = (int) Math.floorMod(planetFrame - shifts, (long) planetImage.size());
+            lastPlanetFrame += shifts * PLANET_FRAME_NANOS;
         }
     }
     
+    /**
+     * Adds the area that the planet is drawn over, which changes whenever the planetFrame is shifted
+     * @param regions The changed areas of the frame to add to
+     */
+    void addDirtyRegions(DirtyRegions regions) {
+        int width = planetImage.getFrameWidth(), height = planetImage.getFrameHeight();
+        regions.add((int) Math.floor(centerX - width / 2), (int) Math.floor(centerY - height / 2), width + 2, height + 2);
+    }
+    
     /**
      * Return's the mass of the planet
      * @return The mass of the planet
@@ -93,24 +97,12 @@ class Planet {
     }
     
     /**
-     * Sets the center coordinates of the planet to the right focus of the elliptical orbit, using the formula c = sqrt(a^2 - b^2)
+     * Sets the center coordinates of the planet to the right focus of the elliptical orbit
      * @param s The satellite that orbits the planet
      */
     void setCenterCoordinates(Satellite s) {
-        centerX = Runner.frameWidth() / 2 + Math.sqrt(Math.pow(s.getRadiusMajorVisual(), 2) - Math.pow(s.getRadiusMinorVisual(), 2));
+        centerX = Runner.frameWidth() / 2 + s.getFocalDistanceVisual();
         centerY = Runner.frameHeight() / 2.0;
-        planet = new Ellipse2D.Double(centerX - Runner.frameWidth() / 2 - PLANET_HEIGHT_WIDTH / 2, -PLANET_HEIGHT_WIDTH / 2, PLANET_HEIGHT_WIDTH, PLANET_HEIGHT_WIDTH);
-        satellite = s;
-    }
-    
-    /**
-     * Sets the planet ellipse's position based on the hypothetical radii in settings
-     * @param radiusMajorVisual The semi-major radius in pixels
-     * @param radiusMinorVisual The semi-minor radius in pixels
-     */
-    void setPlanetEllipse(double radiusMajorVisual, double radiusMinorVisual) {
-        double centerX = Runner.frameWidth() / 2 + Math.sqrt(Math.pow(radiusMajorVisual, 2) - Math.pow(radiusMinorVisual, 2));
-        planet = new Ellipse2D.Double(centerX - Runner.frameWidth() / 2 - PLANET_HEIGHT_WIDTH / 2, -PLANET_HEIGHT_WIDTH / 2, PLANET_HEIGHT_WIDTH, PLANET_HEIGHT_WIDTH);
     }
     
     /**
@@ -129,12 +121,4 @@ class Planet {
         return centerY;
     }
     
-    /**
-     * Returns planet ellipse
-     * @return Planet ellipse
-     */
-    Ellipse2D getPlanet() {
-        return planet;
-    }
-    
 }
@@ -0,0 +1,188 @@
+package kepler;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.DisplayMode;
+import java.awt.Graphics;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Actively renders a frame through a BufferStrategy on a dedicated thread, drawing up to one frame per refresh of the display
+ * as chosen by a FrameScheduler instead of relying on repaint requests being coalesced by Swing
+ *
+ * The frame's components are still painted on the event dispatch thread, since Swing components are not thread-safe, so the
+ * NumberFields, PopUps and Buttons keep working. The render thread only paces the frames and shows the drawn buffer.
+ *
+ * Since frames come at the display's refresh rate rather than every 2 ms, anything animated has to advance by the time that
+ * has passed, as the satellite's spin and the planet's star frames do, instead of by a fixed amount per paint.
+ */
+class RenderLoop implements Runnable {
+    /**
+     * The refresh rate used when the display does not report one
+     */
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    
+    /**
+     * The frame being rendered
+     */
+    private final JFrame frame;
+    
+    /**
+     * The buffers that each frame is drawn into and then shown
+     */
+    private final BufferStrategy strategy;
+    
+    /**
+     * Advances everything that moves by one frame before it is drawn
+     */
+    private final Runnable tick;
+    
+    /**
+     * Chooses the time until the next frame, which is at most one frame per refresh of the display
+     */
+    private final FrameScheduler scheduler;
+    
+    /**
+     * The time in nanoseconds until the next frame as chosen on the event dispatch thread, or FrameScheduler.PAUSED
+     */
+    private volatile long frameNanos;
+    
+    /**
+     * Chooses when the next frame is due and advances everything by one frame, which is kept to avoid creating a Runnable
+     * every frame
+     */
+    private final Runnable advance = this::advance;
+    
+    /**
+     * Draws the frame's components into the back buffer, which is kept to avoid creating a Runnable every frame
+     */
+    private final Runnable draw = this::draw;
+    
+    /**
+     * The thread that the loop runs on
+     */
+    private final Thread thread = new Thread(this, "Render loop");
+    
+    /**
+     * Whether or not the loop should keep rendering
+     */
+    private volatile boolean running = false;
+    
+    /**
+     * RenderLoop constructor that creates the frame's buffer strategy, using page flipping if the display supports it
+     * @param frame     The frame to render, which has to be displayable
+     * @param tick      Advances everything that moves by one frame, which is run on the event dispatch thread before drawing
+     * @param animating Returns whether something is animating that needs the full rate
+     * @param covered   Returns whether the orbit is covered so that only a few frames are needed
+     */
+    RenderLoop(JFrame frame, Runnable tick, BooleanSupplier animating, BooleanSupplier covered) {
+        this.frame = frame;
+        this.tick = tick;
+        frame.setIgnoreRepaint(true);
+        try {
+            frame.createBufferStrategy(2, new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED));
+        }
+        catch(AWTException e) {
+            //Falls back to whichever strategy is available, which blits instead of flipping
+            frame.createBufferStrategy(2);
+        }
+        strategy = frame.getBufferStrategy();
+        
+        //Paces the frames to at most the display's refresh rate, waking the render thread early when the window comes back
+        DisplayMode mode = frame.getGraphicsConfiguration().getDevice().getDisplayMode();
+        int refreshRate = mode.getRefreshRate() == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : mode.getRefreshRate();
+        scheduler = new FrameScheduler(frame, 1000000000L / refreshRate, animating, covered, () -> LockSupport.unpark(thread));
+        thread.setDaemon(true);
+    }
+    
+    /**
+     * Starts rendering on the render thread
+     */
+    void start() {
+        running = true;
+        thread.start();
+    }
+    
+    /**
+     * Stops rendering after the current frame
+     */
+    void stop() {
+        running = false;
+    }
+    
+    /**
+     * Draws and shows frames at the rate chosen by the scheduler until stopped, skipping ahead instead of catching up if a
+     * frame takes longer than planned
+     */
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while(running) {
+            try {
+                //Advances once per frame and only draws again if the buffer was lost before it could be shown
+                SwingUtilities.invokeAndWait(advance);
+                if(frameNanos != FrameScheduler.PAUSED) {
+                    do {
+                        SwingUtilities.invokeAndWait(draw);
+                        strategy.show();
+                    } while(strategy.contentsLost());
+                }
+            }
+            catch(InterruptedException e) {
+                return;
+            }
+            catch(InvocationTargetException e) {
+                e.getCause().printStackTrace();
+            }
+            
+            //Checks again later while paused, which the scheduler cuts short when the window is restored
+            if(frameNanos == FrameScheduler.PAUSED) {
+                LockSupport.parkNanos(FrameScheduler.PAUSED_POLL_NANOS);
+                nextFrame = System.nanoTime();
+                continue;
+            }
+            Toolkit.getDefaultToolkit().sync();
+            
+            nextFrame += frameNanos;
+            long wait = nextFrame - System.nanoTime();
+            if(wait > 0)
+                LockSupport.parkNanos(wait);
+            else
+                nextFrame = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Asks the scheduler when the next frame is due and, unless frames are paused, advances everything by one frame
+     */
+    private void advance() {
+        frameNanos = scheduler.getFrameNanos();
+        if(frameNanos != FrameScheduler.PAUSED)
+            tick.run();
+    }
+    
+    /**
+     * Paints the frame's components into the back buffer, painting again if the buffer was restored while being drawn. The
+     * whole frame is painted every time since the contents of a flipped back buffer are not kept, and nothing is advanced so
+     * that drawing a lost buffer again shows the same frame.
+     */
+    private void draw() {
+        do {
+            Graphics g = strategy.getDrawGraphics();
+            try {
+                frame.getRootPane().paint(g);
+            }
+            finally {
+                g.dispose();
+            }
+        } while(strategy.contentsRestored());
+    }
+    
+}
@@ -0,0 +1,117 @@
+package kepler;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+
+/**
+ * Copies of an image rotated to evenly spaced angles, so that drawing it at an angle is a plain copy of an image that was
+ * already rotated instead of rotating and resampling it every frame
+ *
+ * Each rotation is only drawn the first time it is needed and then kept. Every copy is a square as wide as the image's
+ * diagonal, so the image fits in it at any angle, and it has the same color model as the image so that it is drawn just as
+ * quickly. Angles are rounded to the nearest of the kept rotations.
+ */
+class RotationCache {
+    /**
+     * The number of rotations kept by default, which are the π/400 radian steps that the satellite has always spun in
+     */
+    static final int DEFAULT_ROTATIONS = 800;
+    
+    /**
+     * The image that is rotated
+     */
+    private final BufferedImage image;
+    
+    /**
+     * The rotated copies of the image, where index i is rotated by i / rotated.length of a turn, or null until first needed
+     */
+    private final BufferedImage[] rotated;
+    
+    /**
+     * The width and height of every rotated copy
+     */
+    private final int size;
+    
+    /**
+     * The number of rotations that have been drawn
+     */
+    private int rendered = 0;
+    
+    /**
+     * RotationCache constructor that takes in the image and how many evenly spaced rotations of it to keep
+     * @param image     The image to rotate
+     * @param rotations The number of rotations in a full turn
+     */
+    RotationCache(BufferedImage image, int rotations) {
+        if(rotations < 1)
+            throw new IllegalArgumentException("There has to be at least one rotation");
+        this.image = image;
+        rotated = new BufferedImage[rotations];
+        
+        //Keeps the image a whole number of pixels from each edge so that its center is on the copy's center
+        int diagonal = (int) Math.ceil(Math.hypot(image.getWidth(), image.getHeight())) + 2;
+        size = diagonal + (diagonal - image.getWidth()) % 2;
+    }
+    
+    /**
+     * Returns the image rotated clockwise by the kept rotation nearest to an angle, drawing that rotation if it was not needed
+     * before
+     * @param angle The angle in radians, which can be any number of turns
+     * @return The rotated copy of the image, which is getSize() wide and high with the image's center at its center
+     */
+    BufferedImage get(double angle) {
+        int index = (int) Math.floorMod(Math.round(angle / (2 * Math.PI) * rotated.length), (long) rotated.length);
+        if(rotated[index] == null)
+            rotated[index] = render(2 * Math.PI * index / rotated.length);
+        return rotated[index];
+    }
+    
+    /**
+     * Draws the image rotated by the kept rotation nearest to an angle, with its center at the nearest pixel to a point
+     * @param g       The graphics object used for drawing
+     * @param angle   The angle in radians
+     * @param centerX The x-coordinate of the image's center
+     * @param centerY The y-coordinate of the image's center
+     */
+    void draw(Graphics g, double angle, double centerX, double centerY) {
+        g.drawImage(get(angle), (int) Math.round(centerX - size / 2.0), (int) Math.round(centerY - size / 2.0), null);
+    }
+    
+    /**
+     * Draws a rotated copy of the image, smoothing it since it is only drawn once
+     * @param angle The angle in radians
+     * @return The rotated copy
+     */
+    private BufferedImage render(double angle) {
+        ColorModel colorModel = image.getColorModel();
+        BufferedImage copy = new BufferedImage(colorModel, colorModel.createCompatibleWritableRaster(size, size), colorModel.isAlphaPremultiplied(), null);
+        Graphics2D g2d = copy.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.rotate(angle, size / 2.0, size / 2.0);
+        g2d.drawImage(image, (size - image.getWidth()) / 2, (size - image.getHeight()) / 2, null);
+        g2d.dispose();
+        copy.setAccelerationPriority(1);
+        ++rendered;
+        return copy;
+    }
+    
+    /**
+     * Returns the width and height of every rotated copy
+     * @return The size of the rotated copies in pixels
+     */
+    int getSize() {
+        return size;
+    }
+    
+    /**
+     * Returns the number of rotations that have been drawn so far
+     * @return The number of rotated copies that are kept
+     */
+    int getRendered() {
+        return rendered;
+    }
+    
+}
@@ -7,7 +7,7 @@ import nikunj.classes.PopUp;
 import nikunj.classes.Sound;
 
 import javax.imageio.ImageIO;
-import javax.sound.sampled.UnsupportedAudioFileException;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.Timer;
@@ -19,13 +19,13 @@ import java.awt.Cursor;
 import java.awt.Desktop;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.FontFormatException;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
 import java.awt.MouseInfo;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -36,19 +36,29 @@ import java.awt.event.MouseListener;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.function.Supplier;
+import java.util.concurrent.Future;
+import java.util.function.DoubleSupplier;
 
 /**
  * Class that is used for initialization and running the program
  */
 class Runner extends JPanel implements ActionListener, KeyListener {
+    /**
+     * The width and height of the JFrame in pixels, which cannot be resized
+     */
+    private static final int FRAME_WIDTH = 1200, FRAME_HEIGHT = 600;
+    
     /**
      * The x-position of the credit text
      */
@@ -64,6 +74,11 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      */
     private static final int SETTINGS_RIGHT_X = 495;
     
+    /**
+     * The length that a line of the error message is kept under, counting the space after each word
+     */
+    private static final int ERROR_LINE_LENGTH = 32;
+    
     /**
      * Counter that forces the JFrame on top of other content while it is greater than zero
      */
@@ -90,9 +105,9 @@ class Runner extends JPanel implements ActionListener, KeyListener {
     private static boolean[] checkTicked = new boolean[8];
     
     /**
-     * The String that represents the error message
+     * The lines of the error message, which are split once when the error starts instead of every time it is drawn
      */
-    private static String errorMessage;
+    private static String[] errorLines = new String[0];
     
     /**
      * Strings displayed in settings
@@ -104,10 +119,43 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      */
     private static final String[] SHOWN_VALUES = {"Velocity: %s m/s", "Transverse Velocity: %s m/s", "Radial Velocity: %s m/s", "Periapsis: %s m", "Apoapsis: %s m", "Angular Velocity: %s rad/s", "Instantaneous Radius: %s m", "Period: %s s"};
     
+    /**
+     * The text before and after the value in each of SHOWN_VALUES
+     */
+    private static final char[][] SHOWN_VALUE_PREFIXES = new char[SHOWN_VALUES.length][], SHOWN_VALUE_SUFFIXES = new char[SHOWN_VALUES.length][];
+    
+    /**
+     * The text put between the shown values
+     */
+    private static final char[] SHOWN_VALUE_SEPARATOR = ", ".toCharArray();
+    
+    /**
+     * The text before and after the time warp factor
+     */
+    private static final char[] TIME_WARP_PREFIX = "Time Warp: ".toCharArray(), TIME_WARP_SUFFIX = "x".toCharArray();
+    
+    /**
+     * The reused buffer that the values strip and time warp are written into before being drawn so that painting does not
+     * create any Strings
+     */
+    private static final char[] valuesLine;
+    
+    static {
+        //Splits the preformatted strings around the value once so that they can be copied straight into valuesLine
+        int lineLength = 0;
+        for(int i = 0; i < SHOWN_VALUES.length; ++i) {
+            int valueIndex = SHOWN_VALUES[i].indexOf("%s");
+            SHOWN_VALUE_PREFIXES[i] = SHOWN_VALUES[i].substring(0, valueIndex).toCharArray();
+            SHOWN_VALUE_SUFFIXES[i] = SHOWN_VALUES[i].substring(valueIndex + 2).toCharArray();
+            lineLength += SHOWN_VALUES[i].length() + ScientificFormatter.MAX_LENGTH + SHOWN_VALUE_SEPARATOR.length;
+        }
+        valuesLine = new char[lineLength];
+    }
+    
     /**
      * Contains references to the functions needed to get the values for SHOWN_VALES
      */
-    private static ArrayList<Supplier<Double>> getValues;
+    private static ArrayList<DoubleSupplier> getValues;
     
     /**
      * JFrame container that contains all the components that are displayed on screen
@@ -229,6 +277,148 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      */
     private static Satellite satellite;
     
+    /**
+     * The integrator that the satellite is advanced with, or null if it follows the closed-form orbit
+     */
+    private static Integrator integrator;
+    
+    /**
+     * Whether the frame is drawn by a RenderLoop on its own thread instead of by repaint requests from the repaintTimer
+     */
+    private static boolean activeRendering = false;
+    
+    /**
+     * The time in milliseconds between repaints at the full rate when frames are not actively rendered
+     */
+    private static final int REPAINT_DELAY = 2;
+    
+    /**
+     * The timer that repaints the frame when it is not actively rendered
+     */
+    private static Timer repaintTimer;
+    
+    /**
+     * Chooses the time between repaints of the repaintTimer
+     */
+    private static FrameScheduler repaintScheduler;
+    
+    /**
+     * The y-coordinate of the top of the strip at the bottom of the frame that the values and time warp are drawn in
+     */
+    private static final int VALUES_STRIP_Y = 580;
+    
+    /**
+     * The number of pixels around each button that are repainted with it, which covers its antialiased edges
+     */
+    private static final int BUTTON_MARGIN = 2;
+    
+    /**
+     * The space background with the orbit drawn over it, which only changes when the orbit does
+     */
+    private static StaticLayer staticLayer;
+    
+    /**
+     * The areas of the frame that changed during the current tick
+     */
+    private static final DirtyRegions dirtyRegions = new DirtyRegions();
+    
+    /**
+     * The buttons that are always drawn, which are repainted every tick since they change when hovered over
+     */
+    private static JComponent[] alwaysShownButtons;
+    
+    /**
+     * Whether the whole frame has to be repainted on the next tick instead of only the areas that changed
+     */
+    private static boolean fullRepaint = true;
+    
+    /**
+     * The times between the most recently painted frames
+     */
+    private static final FrameStats frameStats = new FrameStats();
+    
+    /**
+     * Whether the frame times and the number of static layer renders are printed when the program closes
+     */
+    private static boolean printFrameStats = false;
+    
+    /**
+     * Whether the phases of starting the program are printed once the first frame is painted
+     */
+    private static boolean printStartupTimeline = false;
+    
+    /**
+     * The phases of starting the program, which is cleared by the first tick so that later ticks skip it
+     */
+    private static StartupTimeline startupTimeline = new StartupTimeline();
+    
+    /**
+     * The number of rotations of the satellite image that are kept, or 0 to rotate the image every time it is drawn
+     */
+    private static int satelliteRotations = RotationCache.DEFAULT_ROTATIONS;
+    
+    /**
+     * The number of frames in the star animation
+     */
+    private static final int STAR_FRAMES = 288;
+    
+    /**
+     * The most bytes of star frames kept decoded when they are decoded as they are needed, or 0 to keep the whole atlas
+     */
+    private static long starFrameBudget = 0;
+    
+    /**
+     * The star animation's frames, which are loaded in the background while the window is set up
+     */
+    private static Future<? extends AnimationFrames> starFrames;
+    
+    /**
+     * The satellite image, which is loaded in the background while the window is set up
+     */
+    private static Future<BufferedImage> satelliteImage;
+    
+    /**
+     * The number of samples per period that the closed-form orbit is interpolated from, or 0 to solve for every frame
+     */
+    private static int ephemerisSamples = EphemerisCache.DEFAULT_SAMPLES;
+    
+    /**
+     * The file that the satellite is recorded to, or null if it is not recorded
+     */
+    private static Path recordPath;
+    
+    /**
+     * The number of recordings that have been started, since every saved orbit is recorded to its own file
+     */
+    private static int recordings = 0;
+    
+    /**
+     * The folder of already converted images that are used instead of decoding the PNGs again, or null if it is not used, which
+     * is in the user's own cache folder by default rather than the shared temporary folder so that other users cannot plant
+     * pixels in it
+     */
+    private static PixelCache pixelCache = new PixelCache(Paths.get(System.getProperty("user.home"), ".cache", "kepler"));
+    
+    /**
+     * The recording that drives the satellite instead of the live physics, or null if the satellite is simulated live
+     */
+    private static TrajectoryReplayer replayer;
+    
+    /**
+     * The exporter that the satellite's changing values are streamed to every frame, or null if they are not exported
+     */
+    private static TrajectoryExporter exporter;
+    
+    /**
+     * The largest factor that simulated time can be sped up by compared to real time
+     */
+    private static final double MAX_TIME_WARP = 1e6;
+    
+    /**
+     * The factor that simulated time is sped up by compared to real time, which is always a power of ten
+     */
+    private static double timeWarp = 1;
+    
     /**
      * The coefficient NumberFields used in settings
      */
@@ -239,84 +429,149 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      */
     private static NumberField[] settingsInputPowers = new NumberField[3];
     
+    /**
+     * The options that can be passed on the command line
+     */
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java kepler.Runner [options]",
+            "  --integrator=velocity_verlet|yoshida4  Integrates the satellite in fixed steps instead of following the closed-form orbit",
+            "  --record=FILE                          Records the satellite's trajectory to FILE, and each later saved orbit to FILE-2 and so on",
+            "  --replay=FILE                          Replays a trajectory recorded to FILE",
+            "  --export=FILE                          Exports the satellite's values to FILE",
+            "  --export-format=csv|columnar           The format of the export, csv by default",
+            "  --ephemeris-samples=N                  Interpolates the orbit from N >= 2 samples per period, or solves every frame for 0",
+            "  --active-rendering                     Draws frames through a BufferStrategy on a render thread paced to the display",
+            "  --frame-stats                          Prints the frame times and static layer renders when the program closes",
+            "  --startup-timeline                     Prints how long each phase of starting the program took once the first frame is painted",
+            "  --pixel-cache=DIR                      Keeps converted images in DIR, ~/.cache/kepler by default",
+            "  --no-pixel-cache                       Decodes every image on every start",
+            "  --satellite-rotations=N                Keeps N >= 1 rotations of the satellite image, or rotates it every frame for 0",
+            "  --star-frame-budget=KB                 Decodes star frames as needed within KB kilobytes instead of keeping the atlas");
+    
     /**
      * Responsible for initializing everything
-     * @param args Required command-line args for main method
-     */
-    public static void main(String... args) throws IOException, UnsupportedAudioFileException {
-        //Gets optimized images
-        spaceBackground = getCompatibleImage("/spaceBackground.png");
-        creditsText = getCompatibleImage("/credits.png");
-        BufferedImage close = getCompatibleImage("/headerButtons/close.png");
-        BufferedImage draggable = getCompatibleImage("/headerButtons/draggable.png");
-        BufferedImage music = getCompatibleImage("/headerButtons/music.png");
-        BufferedImage sfx = getCompatibleImage("/headerButtons/sfx.png");
-        BufferedImage save = getCompatibleImage("/save.png");
-        BufferedImage checkBox = getCompatibleImage("/checkBox.png");
-        BufferedImage tickMark = getCompatibleImage("/tickMark.png");
-        BufferedImage cog = getCompatibleImage("/cog.png");
-        BufferedImage cogHover = getCompatibleImage("/cogHover.png");
-        BufferedImage about = getCompatibleImage("/about.png");
-        BufferedImage aboutHover = getCompatibleImage("/aboutHover.png");
+     * @param args The options listed in USAGE
+     */
+    public static void main(String... args) throws IOException {
+        long phase = System.nanoTime();
+        
+        //Kept here since the first tick can clear the field before the last phase is recorded
+        StartupTimeline timeline = startupTimeline;
         
-        //Gets fonts
+        //Gets command-line options
+        Path replayPath = null, exportPath = null;
+        TrajectoryExporter.Format exportFormat = TrajectoryExporter.Format.CSV;
         try {
-            drawingFont = Font.createFont(Font.TRUETYPE_FONT, getResource("/freeSans.ttf").openStream()).deriveFont(20f);
-            drawingFontSettings = drawingFont.deriveFont(30f);
-            drawingFontValues = drawingFont.deriveFont(11f);
+            for(String arg : args) {
+                int equals = arg.indexOf('=');
+                String name = equals == -1 ? arg : arg.substring(0, equals);
+                String value = equals == -1 ? "" : arg.substring(equals + 1);
+                switch(name) {
+                    case "--integrator":
+                        integrator = parseChoice(Integrator.class, name, value);
+                        break;
+                    case "--active-rendering":
+                        activeRendering = true;
+                        break;
+                    case "--frame-stats":
+                        printFrameStats = true;
+                        break;
+                    case "--startup-timeline":
+                        printStartupTimeline = true;
+                        break;
+                    case "--ephemeris-samples":
+                        ephemerisSamples = Integer.parseInt(value);
+                        if(ephemerisSamples != 0 && ephemerisSamples < 2)
+                            throw new IllegalArgumentException("The ephemeris needs 0 or at least 2 samples per period");
+                        break;
+                    case "--record":
+                        recordPath = Paths.get(value);
+                        break;
+                    case "--replay":
+                        replayPath = Paths.get(value);
+                        break;
+                    case "--export":
+                        exportPath = Paths.get(value);
+                        break;
+                    case "--export-format":
+                        exportFormat = parseChoice(TrajectoryExporter.Format.class, name, value);
+                        break;
+                    case "--pixel-cache":
+                        pixelCache = new PixelCache(Paths.get(value));
+                        break;
+                    case "--no-pixel-cache":
+                        pixelCache = null;
+                        break;
+                    case "--satellite-rotations":
+                        satelliteRotations = Integer.parseInt(value);
+                        if(satelliteRotations < 0)
+                            throw new IllegalArgumentException("The number of satellite rotations cannot be negative");
+                        break;
+                    case "--star-frame-budget":
+                        starFrameBudget = Long.parseLong(value) * 1024;
+                        if(starFrameBudget < 0)
+                            throw new IllegalArgumentException("The star frame budget cannot be negative");
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
         }
-        catch(FontFormatException e) {
-            e.printStackTrace();
+        catch(IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
         }
+        if(replayPath != null)
+            replayer = new TrajectoryReplayer(replayPath);
+        if(exportPath != null)
+            exporter = new TrajectoryExporter(exportPath, exportFormat);
+        phase = timeline.phase("Options", phase);
         
-        //Gets audio files
-        main = new Sound(getResource("/main.wav"), true);
-        click = new Sound(getResource("/click.wav"), false);
-        errorSound = new Sound(getResource("/error.wav"), false);
+        //Starts decoding the audio files in the background, which are waited for once the frame is set up
+        AssetLoader loader = new AssetLoader(timeline);
+        Future<Sound> mainAsset = loader.sound("/main.wav", true);
+        Future<Sound> clickAsset = loader.sound("/click.wav", false);
+        Future<Sound> errorSoundAsset = loader.sound("/error.wav", false);
         
         //Initializes and sets up the Runner object that is mainly used as a JPanel
         Runner r = new Runner();
-        r.setBounds(0, 0, 1200, 600);
+        r.setBounds(0, 0, FRAME_WIDTH, FRAME_HEIGHT);
         
         //Initializes and sets up JFrame
         mainFrame = new JFrame();
-        mainFrame.setSize(1200, 600);
-        
-        //Initializes satellite and planet objects
-        planet = new Planet(500000000000000.0);
-        satellite = new Satellite(20, 30);
-        
-        // Timer responsible for repainting the main content every 2 milliseconds
-        Timer repaintTimer = new Timer(2, r);
+        mainFrame.setSize(FRAME_WIDTH, FRAME_HEIGHT);
+        phase = timeline.phase("Create frame", phase);
         
-        setUpWindowButtons(close, draggable, music, sfx);
+        //Loads the images and font and sets up everything drawn in the frame, and then waits for the audio
+        phase = setUpFrame(loader, phase);
+        loader.shutdown();
+        main = AssetLoader.await(mainAsset);
+        click = AssetLoader.await(clickAsset);
+        errorSound = AssetLoader.await(errorSoundAsset);
+        phase = timeline.phase("Wait for audio", phase);
         
-        //Initializes pop-ups
-        credits = new PopUp(330, 30, mainFrame.getHeight() - 60, mainFrame.getHeight() - 60, 30, Color.BLACK, Color.ORANGE, 2);
-        settings = new PopUp(15, 15, mainFrame.getWidth() - 30, mainFrame.getHeight() - 30, 30, Color.BLACK, Color.ORANGE, 2) {
-            
-            @Override
-            public void mouseClicked(MouseEvent event) {}
-        };
-        
-        setUpSettingsItems(save, checkBox, tickMark, cog, cogHover);
-        
-        setUpCreditsItems(about, aboutHover);
+        //Makes sure that the recording and export are written to the disk and prints the frame times if asked to when the program closes
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if(printFrameStats) {
+                frameStats.print(activeRendering ? "Active rendering" : "Timer repaint");
+                System.out.println("Static layer drawn " + staticLayer.getRenders() + " times");
+            }
+            satellite.closeRecorder();
+            if(exporter != null) {
+                try {
+                    exporter.close();
+                }
+                catch(IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
         
-        //Sets all of the components' visibilities to true
+        //Timer responsible for repainting the main content, every 2 milliseconds at the full rate
+        repaintTimer = new Timer(REPAINT_DELAY, r);
         r.setVisible(true);
-        closeButton.setVisible(true);
-        draggableButton.setVisible(true);
-        musicButton.setVisible(true);
-        sfxButton.setVisible(true);
-        credits.setVisible(true);
-        settings.setVisible(true);
-        error.setVisible(true);
-        settingsButton.setVisible(true);
-        creditsButton.setVisible(true);
-        
-        //Makes saveButton initially not visible
-        saveButton.setVisible(false);
         
         //Adds the key listener to the necessary components
         mainFrame.addKeyListener(r);
@@ -351,23 +606,136 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         //Sets up the remainder of the JFrame
         Dimension dim = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
         mainFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
-        mainFrame.setLocation((dim.width - mainFrame.getWidth()) / 2, (dim.height - mainFrame.getHeight()) / 2);
+        mainFrame.setLocation((dim.width - FRAME_WIDTH) / 2, (dim.height - FRAME_HEIGHT) / 2);
         mainFrame.getContentPane().setLayout(null);
         mainFrame.setUndecorated(true);
         mainFrame.setAlwaysOnTop(true);
         mainFrame.setResizable(false);
         
-        //Initializes getValues to ArrayList full of methods to get values for SHOW_VALUES
-        getValues = new ArrayList<>(Arrays.asList(satellite::getVelocity, satellite::getTransverseVelocity, satellite::getRadialVelocity, satellite::getPeriapsis, satellite::getApoapsis, satellite::getAngularVelocity, satellite::getRadius, satellite::getPeriod));
-        
         //Plays the background soundtrack
         main.play();
         
-        //Starts the repaintTimer
-        repaintTimer.start();
+        //Starts the repaintTimer with a scheduler that slows it down while the frame is idle, unless frames are actively rendered
+        if(!activeRendering) {
+            repaintScheduler = new FrameScheduler(mainFrame, REPAINT_DELAY * 1000000L, Runner::isAnimating, Runner::isOrbitCovered, repaintTimer::restart);
+            repaintTimer.start();
+        }
         
         //Shows the JFrame
+        phase = timeline.phase("Set up components", phase);
         mainFrame.setVisible(true);
+        timeline.phase("Show frame", phase);
+        
+        //Starts the render loop once the JFrame can create its buffers
+        if(activeRendering)
+            new RenderLoop(mainFrame, Runner::tick, Runner::isAnimating, Runner::isOrbitCovered).start();
+    }
+    
+    /**
+     * Returns the constant of an enum whose name matches a command-line value, ignoring case
+     * @param type   The enum to choose a constant from
+     * @param option The option that the value was given for
+     * @param value  The value given on the command line
+     * @param <E>    The type of the enum
+     * @return The matching constant
+     * @throws IllegalArgumentException If no constant matches the value
+     */
+    private static <E extends Enum<E>> E parseChoice(Class<E> type, String option, String value) {
+        for(E constant : type.getEnumConstants()) {
+            if(constant.name().equalsIgnoreCase(value))
+                return constant;
+        }
+        throw new IllegalArgumentException("Unknown value for " + option + ": " + value);
+    }
+    
+    /**
+     * Loads the images and font and sets up everything that is drawn in the frame, which are the static layer, planet,
+     * satellite, buttons and pop-ups. None of it needs the JFrame or a display, so FrameAllocationCheck sets up and draws
+     * frames the same way without one.
+     * @param loader The loader that the assets are decoded with in the background
+     * @param phase  The time in nanoseconds that setting up the frame started at
+     * @return The current time in nanoseconds, which is when the next phase of starting the program starts
+     * @throws IOException If an asset could not be loaded
+     */
+    static long setUpFrame(AssetLoader loader, long phase) throws IOException {
+        //Starts decoding the optimized images and font in the background, which are waited for where first needed
+        if(starFrameBudget > 0)
+            starFrames = loader.load("/star", () -> new LazyFrames(STAR_FRAMES, -1, starFrameBudget, i -> getCompatibleImage("/star/star" + i + ".png")));
+        else
+            starFrames = loader.atlas("/starAtlas");
+        satelliteImage = loader.image("/planet.png");
+        Future<BufferedImage> spaceBackgroundAsset = loader.image("/spaceBackground.png");
+        Future<BufferedImage> creditsTextAsset = loader.image("/credits.png");
+        Future<BufferedImage> close = loader.image("/headerButtons/close.png");
+        Future<BufferedImage> draggable = loader.image("/headerButtons/draggable.png");
+        Future<BufferedImage> music = loader.image("/headerButtons/music.png");
+        Future<BufferedImage> sfx = loader.image("/headerButtons/sfx.png");
+        Future<BufferedImage> save = loader.image("/save.png");
+        Future<BufferedImage> checkBox = loader.image("/checkBox.png");
+        Future<BufferedImage> tickMark = loader.image("/tickMark.png");
+        Future<BufferedImage> cog = loader.image("/cog.png");
+        Future<BufferedImage> cogHover = loader.image("/cogHover.png");
+        Future<BufferedImage> about = loader.image("/about.png");
+        Future<BufferedImage> aboutHover = loader.image("/aboutHover.png");
+        Future<Font> font = loader.font("/freeSans.ttf", 20f);
+        phase = startupTimeline.phase("Start loading assets", phase);
+        
+        //Initializes the static layer drawn behind everything that moves
+        staticLayer = new StaticLayer(FRAME_WIDTH, FRAME_HEIGHT, Runner::drawStaticLayer);
+        
+        //Initializes satellite and planet objects, using the recorded orbit when replaying
+        if(replayer != null) {
+            planet = new Planet(replayer.getPlanetMass());
+            satellite = new Satellite(replayer.getRadiusMajor(), replayer.getRadiusMinor());
+        }
+        else {
+            planet = new Planet(500000000000000.0);
+            satellite = new Satellite(20, 30);
+        }
+        phase = startupTimeline.phase("Create planet and satellite", phase);
+        
+        //Waits for the rest of the assets
+        spaceBackground = AssetLoader.await(spaceBackgroundAsset);
+        creditsText = AssetLoader.await(creditsTextAsset);
+        drawingFont = AssetLoader.await(font);
+        drawingFontSettings = drawingFont.deriveFont(30f);
+        drawingFontValues = drawingFont.deriveFont(11f);
+        phase = startupTimeline.phase("Wait for assets", phase);
+        
+        setUpWindowButtons(AssetLoader.await(close), AssetLoader.await(draggable), AssetLoader.await(music), AssetLoader.await(sfx));
+        
+        //Initializes pop-ups
+        credits = new PopUp(330, 30, FRAME_HEIGHT - 60, FRAME_HEIGHT - 60, 30, Color.BLACK, Color.ORANGE, 2);
+        settings = new PopUp(15, 15, FRAME_WIDTH - 30, FRAME_HEIGHT - 30, 30, Color.BLACK, Color.ORANGE, 2) {
+            
+            @Override
+            public void mouseClicked(MouseEvent event) {}
+        };
+        
+        setUpSettingsItems(AssetLoader.await(save), AssetLoader.await(checkBox), AssetLoader.await(tickMark), AssetLoader.await(cog), AssetLoader.await(cogHover));
+        
+        setUpCreditsItems(AssetLoader.await(about), AssetLoader.await(aboutHover));
+        
+        //Sets all of the components' visibilities to true
+        closeButton.setVisible(true);
+        draggableButton.setVisible(true);
+        musicButton.setVisible(true);
+        sfxButton.setVisible(true);
+        credits.setVisible(true);
+        settings.setVisible(true);
+        error.setVisible(true);
+        settingsButton.setVisible(true);
+        creditsButton.setVisible(true);
+        
+        //Makes saveButton initially not visible
+        saveButton.setVisible(false);
+        
+        //Initializes getValues to ArrayList full of methods to get values for SHOW_VALUES
+        getValues = new ArrayList<>(Arrays.asList(satellite::getVelocity, satellite::getTransverseVelocity, satellite::getRadialVelocity, satellite::getPeriapsis, satellite::getApoapsis, satellite::getAngularVelocity, satellite::getRadius, satellite::getPeriod));
+        
+        //Gets the buttons that are repainted every tick
+        alwaysShownButtons = new JComponent[] {closeButton, draggableButton, musicButton, sfxButton, settingsButton, creditsButton};
+        return phase;
     }
     
     /**
@@ -473,7 +841,7 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         };
         
         //Creates the music button that mutes and unmutes the background audio when clicked
-        musicButton = new GradientButton(music, Color.BLACK, new Color(0, 208, 208), 35, mainFrame.getWidth() - 54, 2, 24, 24) {
+        musicButton = new GradientButton(music, Color.BLACK, new Color(0, 208, 208), 35, FRAME_WIDTH - 54, 2, 24, 24) {
             
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -521,7 +889,7 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         };
         
         //Creates the sfx button that mutes and unmutes the sound effects when clicked
-        sfxButton = new GradientButton(sfx, Color.BLACK, Color.GREEN, 35, mainFrame.getWidth() - 26, 2, 24, 24) {
+        sfxButton = new GradientButton(sfx, Color.BLACK, Color.GREEN, 35, FRAME_WIDTH - 26, 2, 24, 24) {
             
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -864,10 +1232,24 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         }
         
         //If the satellite and planet would not crash
-        if(!satellite.intersectsPlanet(radiusOne, radiusTwo)) {
-            //Initializes planet and satellite with the above values
+        if(!Orbit.intersectsPlanet(radiusOne, radiusTwo, frameWidth(), frameHeight())) {
+            //Saving new settings ends any replay and starts a new recording of the new orbit
+            satellite.closeRecorder();
+            if(replayer != null) {
+                try {
+                    replayer.close();
+                }
+                catch(IOException e) {
+                    e.printStackTrace();
+                }
+                replayer = null;
+            }
+            
+            //Initializes planet and satellite with the above values, which changes the orbit drawn in the static layer
             planet = new Planet(planetMass);
             satellite = new Satellite(radiusOne, radiusTwo);
+            staticLayer.invalidate();
+            fullRepaint = true;
             
             //Replaces methods with methods from new instance of satellite
             getValues = new ArrayList<>(Arrays.asList(satellite::getVelocity, satellite::getTransverseVelocity, satellite::getRadialVelocity, satellite::getPeriapsis, satellite::getApoapsis, satellite::getAngularVelocity, satellite::getRadius, satellite::getPeriod));
@@ -896,7 +1278,7 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      * @param errorMessage The message that will be displayed in the error pop-up
      */
     private static void errorStart(String errorMessage) {
-        Runner.errorMessage = errorMessage;
+        errorLines = wrapErrorMessage(errorMessage);
         error.setExpanding(true);
         errorSound.play();
         defaultHighlighter = settingsInputBases[0].getHighlighter();
@@ -920,10 +1302,50 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      * @return Optimized BufferedImage
      */
     static BufferedImage getCompatibleImage(String resource) {
+        //Gets the encoded image
+        byte[] content;
+        try(InputStream stream = getResource(resource).openStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for(int read = stream.read(buffer); read != -1; read = stream.read(buffer))
+                bytes.write(buffer, 0, read);
+            content = bytes.toByteArray();
+        }
+        catch(IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        
+        /*
+         * Gets local graphics configuration, or that of an ordinary image when there is no display, such as when
+         * FrameAllocationCheck draws frames, in which case the pixel cache is left alone since it holds images converted for
+         * the screen
+         */
+        boolean headless = GraphicsEnvironment.isHeadless();
+        GraphicsConfiguration gfxConfig;
+        if(headless) {
+            Graphics2D imageGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+            gfxConfig = imageGraphics.getDeviceConfiguration();
+            imageGraphics.dispose();
+        }
+        else
+            gfxConfig = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        
+        //Uses the image converted on an earlier start if the PNG and the screen's pixel format are both the same
+        byte[] hash = null;
+        if(pixelCache != null && !headless) {
+            hash = PixelCache.hash(content);
+            BufferedImage cached = pixelCache.get(resource, hash, gfxConfig::getColorModel);
+            if(cached != null) {
+                cached.setAccelerationPriority(1);
+                return cached;
+            }
+        }
+        
         //Gets unoptimized BufferedImage
         BufferedImage current = null;
         try {
-            current = ImageIO.read(getResource(resource));
+            current = ImageIO.read(new ByteArrayInputStream(content));
         }
         catch(IOException e) {
             e.printStackTrace();
@@ -933,9 +1355,6 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         if(current == null)
             return null;
         
-        //Gets local graphics configuration
-        GraphicsConfiguration gfxConfig = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-        
         //If the image is already optimized, it will be returned
         if(current.getColorModel().equals(gfxConfig.getColorModel()))
             return current;
@@ -947,7 +1366,10 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         BufferedImage optimized = gfxConfig.createCompatibleImage(current.getWidth(), current.getHeight(), current.getTransparency());
         Graphics2D g2d = optimized.createGraphics();
         g2d.drawImage(current, 0, 0, null);
+        g2d.dispose();
         optimized.setAccelerationPriority(1);
+        if(pixelCache != null && !headless)
+            pixelCache.put(resource, hash, optimized);
         return optimized;
     }
     
@@ -968,17 +1390,112 @@ class Runner extends JPanel implements ActionListener, KeyListener {
     }
     
     /**
-     * Responsible for drawing all of the content
-     * @param g The graphics object used for drawing
+     * Draws the parts of the frame that only change when the orbit does, which are the space background and the antialiased
+     * orbit, onto the static layer
+     * @param g2d The graphics object of the static layer
      */
-    @Override
-    public void paintComponent(Graphics g) {
+    private static void drawStaticLayer(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.drawImage(spaceBackground, 0, 0, null);
+        satellite.drawOrbit(g2d);
+    }
+    
+    /**
+     * Advances everything that moves by one frame and updates the window and components that depend on it without painting
+     * anything, since the frame can be painted several times in one tick
+     */
+    private static void tick() {
+        //Prints the startup timeline if asked to once the first frame has been painted, which every tick after the first comes after
+        if(startupTimeline != null) {
+            if(printStartupTimeline)
+                startupTimeline.finish(System.nanoTime());
+            startupTimeline = null;
+        }
+        
         //Responsible for determining whether the JFrame should be on top of all other windows
         if(alwaysOnTop != 0)
             --alwaysOnTop;
         else
             mainFrame.setAlwaysOnTop(false);
         
+        //Requests focus back to JFrame while the settings pop-up is not fully expanded
+        if(settings.percentageExpanded() != 1.0)
+            mainFrame.requestFocusInWindow();
+        
+        advance();
+    }
+    
+    /**
+     * Does the part of a tick that does not need the JFrame, which is recording the frame time, showing or hiding the pop-up
+     * components, advancing the satellite and exporting its values. FrameAllocationCheck runs it along with paintFrame to check
+     * what a frame allocates.
+     */
+    static void advance() {
+        frameStats.frame(System.nanoTime());
+        updateComponents();
+        satellite.update();
+        if(exporter != null)
+            exporter.export(satellite.getSimulatedTime(), satellite.getVelocity(), satellite.getTransverseVelocity(), satellite.getRadialVelocity(), satellite.getRadius(), satellite.getAngularVelocity());
+    }
+    
+    /**
+     * Updates which pop-up components are shown
+     */
+    private static void updateComponents() {
+        //Shows the contents of the settings pop-up while it is fully expanded
+        boolean settingsExpanded = settings.percentageExpanded() == 1.0;
+        saveButton.setVisible(settingsExpanded);
+        for(NumberField nf : settingsInputBases)
+            nf.setVisible(settingsExpanded);
+        for(NumberField nf : settingsInputPowers)
+            nf.setVisible(settingsExpanded);
+        for(Button b : checkBoxes)
+            b.setVisible(settingsExpanded);
+        
+        //Sets the clickable JPanels' visibility based on whether or not the credits are expanded
+        boolean creditsExpanded = credits.percentageExpanded() == 1.0;
+        for(JPanel b : clickableNames)
+            b.setVisible(creditsExpanded);
+    }
+    
+    /**
+     * Repaints only the areas of the frame that changed during the tick, which are the satellite's old and new positions, the
+     * planet, the values strip and the buttons, over the static layer. The whole frame is repainted instead while a pop-up is
+     * shown and for one tick after, since the pop-ups and their components cover most of the frame.
+     */
+    private static void repaintChanged() {
+        boolean popUpShown = credits.percentageExpanded() > 0 || settings.percentageExpanded() > 0 || error.percentageExpanded() > 0 || credits.getExpanding() || settings.getExpanding() || error.getExpanding();
+        if(fullRepaint || popUpShown) {
+            fullRepaint = popUpShown;
+            mainFrame.repaint();
+            return;
+        }
+        dirtyRegions.clear();
+        satellite.addDirtyRegions(dirtyRegions);
+        planet.addDirtyRegions(dirtyRegions);
+        dirtyRegions.add(0, VALUES_STRIP_Y, FRAME_WIDTH, FRAME_HEIGHT - VALUES_STRIP_Y);
+        for(JComponent button : alwaysShownButtons)
+            dirtyRegions.add(button.getX() - BUTTON_MARGIN, button.getY() - BUTTON_MARGIN, button.getWidth() + 2 * BUTTON_MARGIN, button.getHeight() + 2 * BUTTON_MARGIN);
+        for(int i = 0; i < dirtyRegions.size(); ++i)
+            mainFrame.getRootPane().paintImmediately(dirtyRegions.get(i));
+    }
+    
+    /**
+     * Responsible for drawing all of the content
+     * @param g The graphics object used for drawing
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        paintFrame(g, mainFrame.getGraphicsConfiguration());
+    }
+    
+    /**
+     * Draws all of the content, which only draws and does not change any state so that it can be called several times in one
+     * tick, and which needs no JFrame so that FrameAllocationCheck can draw frames into an image
+     * @param g             The graphics object used for drawing
+     * @param configuration The graphics configuration of what is being drawn on, which the static layer is kept compatible with
+     */
+    static void paintFrame(Graphics g, GraphicsConfiguration configuration) {
         //Gets Graphics2D version of Graphics object for more functionality
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -986,8 +1503,8 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         //Sets graphics font to the main font
         g2d.setFont(drawingFont);
         
-        //Draws the planet, satellite, buttons, background, pop-ups, etc.
-        g2d.drawImage(spaceBackground, 0, 0, null);
+        //Draws the background and orbit, planet, satellite, buttons, pop-ups, etc.
+        staticLayer.draw(g2d, configuration);
         planet.draw(g2d);
         satellite.draw(g2d);
         closeButton.draw(g2d);
@@ -997,24 +1514,27 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         settingsButton.draw(g2d);
         creditsButton.draw(g2d);
         
-        //Gets ArrayList of indices of checked values
-        ArrayList<Integer> trueIndices = new ArrayList<>();
+        //Writes the checked settings values into the reused line and draws them at the bottom
+        g.setFont(drawingFontValues);
+        g.setColor(Color.WHITE);
+        int length = 0;
         for(int i = 0; i < checkTicked.length; ++i) {
-            if(checkTicked[i])
-                trueIndices.add(i);
+            if(checkTicked[i]) {
+                if(length != 0)
+                    length = ScientificFormatter.append(SHOWN_VALUE_SEPARATOR, valuesLine, length);
+                length = ScientificFormatter.append(SHOWN_VALUE_PREFIXES[i], valuesLine, length);
+                length = ScientificFormatter.format(getValues.get(i).getAsDouble(), valuesLine, length);
+                length = ScientificFormatter.append(SHOWN_VALUE_SUFFIXES[i], valuesLine, length);
+            }
         }
+        g.drawChars(valuesLine, 0, length, 1, 595);
         
-        //Draws the checked settings values at the bottom
-        g.setFont(drawingFontValues);
-        g.setColor(Color.WHITE);
-        int x = 1;
-        for(int i = 0; i < trueIndices.size(); ++i) {
-            int index = trueIndices.get(i);
-            String valueString = String.format(SHOWN_VALUES[index], getScientific(0, getValues.get(index).get()));
-            if(i != trueIndices.size() - 1)
-                valueString += ", ";
-            g.drawString(valueString, x, 595);
-            x += g.getFontMetrics().stringWidth(valueString);
+        //Draws the time warp that the satellite actually moves at in the bottom right while time is sped up
+        if(timeWarp != 1) {
+            length = ScientificFormatter.append(TIME_WARP_PREFIX, valuesLine, 0);
+            length = ScientificFormatter.appendInteger((int) Math.round(satellite.getTimeWarp()), valuesLine, length);
+            length = ScientificFormatter.append(TIME_WARP_SUFFIX, valuesLine, length);
+            g.drawChars(valuesLine, 0, length, FRAME_WIDTH - g.getFontMetrics().charsWidth(valuesLine, 0, length) - 1, 595);
         }
         
         //Calls the pop-up draw methods as well as some methods that are used to draw content for the pop-ups
@@ -1024,9 +1544,8 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         error.draw(g2d);
         drawErrorMessage(g2d);
         
-        //Sets clickable JPanels to visible and draws the credit text if credits pop-up is fully expanded
-        boolean creditsExpanded = credits.percentageExpanded() == 1.0;
-        if(creditsExpanded) {
+        //Draws the credit text if credits pop-up is fully expanded
+        if(credits.percentageExpanded() == 1.0) {
             g.drawImage(creditsText, (int) Math.round(credits.getExpandedX()), (int) Math.round(credits.getExpandedY()), null);
             
             //Sets to smaller font
@@ -1034,14 +1553,11 @@ class Runner extends JPanel implements ActionListener, KeyListener {
             
             //Draws "Click to close" at bottom of credits pop-up
             String close = "Click to close";
-            g.drawString(close, (mainFrame.getWidth() - g.getFontMetrics().stringWidth(close)) / 2, 560);
+            g.drawString(close, (FRAME_WIDTH - g.getFontMetrics().stringWidth(close)) / 2, 560);
             
             //Sets font back to normal
             g.setFont(drawingFont);
         }
-        //Sets the clickable JPanels' visibility based on whether or not the credits are expanded
-        for(JPanel b : clickableNames)
-            b.setVisible(creditsExpanded);
     }
     
     /**
@@ -1059,40 +1575,21 @@ class Runner extends JPanel implements ActionListener, KeyListener {
             for(int i = 0, y = 50; i < SETTINGS_STRINGS.length; ++i, y += 52)
                 drawRightAlignedString(g, SETTINGS_STRINGS[i], y);
             
-            //Sets NumberFields visible
+            //Draws the labels next to the NumberFields
             for(int i = 0; i < settingsInputBases.length; ++i) {
                 NumberField nf = settingsInputBases[i];
-                nf.setVisible(true);
                 g.drawString("x 10 ^", nf.getX() + nf.getWidth() + 9, nf.getY() + 30);
                 if(i != 2)
                     g.drawString("m", nf.getX() + nf.getWidth() + 180, nf.getY() + 30);
                 else
                     g.drawString("kg", nf.getX() + nf.getWidth() + 180, nf.getY() + 30);
             }
-            for(NumberField nf : settingsInputPowers)
-                nf.setVisible(true);
-            for(Button b : checkBoxes)
-                b.setVisible(true);
             
-            //Makes save button visible and draws it
-            saveButton.setVisible(true);
+            //Draws the save button and checkBoxes
             saveButton.draw(g);
-            
-            //Draws checkBoxes
             for(Button b : checkBoxes)
                 b.draw(g);
         }
-        else {
-            //Hides contents of settings pop-up and requests focus back to JFrame
-            mainFrame.requestFocusInWindow();
-            saveButton.setVisible(false);
-            for(NumberField nf : settingsInputBases)
-                nf.setVisible(false);
-            for(NumberField nf : settingsInputPowers)
-                nf.setVisible(false);
-            for(Button b : checkBoxes)
-                b.setVisible(false);
-        }
         
         //Sets font back to default drawing font
         g.setFont(drawingFont);
@@ -1116,59 +1613,40 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         if(error.percentageExpanded() == 1.0) {
             g.setColor(Color.WHITE);
             String error = "Error:";
-            g.drawString(error, (mainFrame.getWidth() - g.getFontMetrics().stringWidth(error)) / 2, 195 + 35);
-            String[] errorSplit = errorMessage.split("\\s+");
-            StringBuilder line = new StringBuilder();
-            int lineIndex = 1;
-            boolean drewOnLast = true;
-            for(int i = 0; i < errorSplit.length; ++i) {
-                if(line.length() + errorSplit[i].length() + 1 < 32) {
-                    drewOnLast = false;
-                    line.append(errorSplit[i]).append(" ");
-                }
-                else {
-                    drewOnLast = true;
-                    g.drawString(line.toString(), 460, 195 + 35 + 30 * lineIndex);
-                    ++lineIndex;
-                    line = new StringBuilder();
-                    --i;
-                }
-            }
-            if(!drewOnLast)
-                g.drawString(line.toString(), 460, 195 + 35 + 30 * lineIndex);
+            g.drawString(error, (FRAME_WIDTH - g.getFontMetrics().stringWidth(error)) / 2, 195 + 35);
+            for(int i = 0; i < errorLines.length; ++i)
+                g.drawString(errorLines[i], 460, 195 + 35 + 30 * (i + 1));
             String close = "Click to close";
-            g.drawString(close, (mainFrame.getWidth() - g.getFontMetrics().stringWidth(close)) / 2, 490);
+            g.drawString(close, (FRAME_WIDTH - g.getFontMetrics().stringWidth(close)) / 2, 490);
         }
     }
     
     /**
-     * Returns String in scientific notation from Double with the coefficient rounded to the hundredths
-     * @param tenMultiple Current power of ten
-     * @param normal      Current Double value
-     * @return String in scientific notation with the coefficient rounded to the hundredths
-     */
-    private static String getScientific(int tenMultiple, double normal) {
-        if(Double.isInfinite(normal))
-            return "Very large";
-        else if(Double.isNaN(normal) || normal == 0)
-            return "0";
-        else if(normal >= 10)
-            return getScientific(tenMultiple + 1, normal / 10.0);
-        else if(normal < 1)
-            return getScientific(tenMultiple - 1, normal * 10);
-        else {
-            BigDecimal bigNormal = new BigDecimal(normal);
-            bigNormal = bigNormal.setScale(2, BigDecimal.ROUND_HALF_UP);
-            if(bigNormal.doubleValue() >= 10) {
-                bigNormal = bigNormal.divide(BigDecimal.TEN, BigDecimal.ROUND_HALF_UP);
-                ++tenMultiple;
-            }
-            else if(bigNormal.doubleValue() < 1) {
-                bigNormal = bigNormal.multiply(BigDecimal.TEN);
-                --tenMultiple;
+     * Splits the error message into lines shorter than ERROR_LINE_LENGTH, where a word too long for any line gets its own line
+     * @param errorMessage The message that will be displayed in the error pop-up
+     * @return The lines of the message
+     */
+    private static String[] wrapErrorMessage(String errorMessage) {
+        ArrayList<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for(String word : errorMessage.split("\\s+")) {
+            if(line.length() != 0 && line.length() + word.length() + 1 >= ERROR_LINE_LENGTH) {
+                lines.add(line.toString());
+                line.setLength(0);
             }
-            return String.format("%.2f e %d", bigNormal.doubleValue(), tenMultiple);
+            line.append(word).append(" ");
         }
+        if(line.length() != 0)
+            lines.add(line.toString());
+        return lines.toArray(new String[0]);
+    }
+    
+    /**
+     * Ticks or unticks every check in settings that shows a value at the bottom of the frame
+     * @param shown Whether every value is shown
+     */
+    static void setValuesShown(boolean shown) {
+        Arrays.fill(checkTicked, shown);
     }
     
     /**
@@ -1183,7 +1661,7 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      * @return The width of the JFrame
      */
     static int frameWidth() {
-        return mainFrame.getWidth();
+        return FRAME_WIDTH;
     }
     
     /**
@@ -1191,7 +1669,7 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      * @return The height of the JFrame
      */
     static int frameHeight() {
-        return mainFrame.getHeight();
+        return FRAME_HEIGHT;
     }
     
     /**
@@ -1202,6 +1680,87 @@ class Runner extends JPanel implements ActionListener, KeyListener {
         return firstTime;
     }
     
+    /**
+     * Waits until the star animation is loaded and returns it
+     * @return The atlas of the star animation's frames, or the frames decoded as they are needed if there is a budget for them
+     * @throws IOException If the frames could not be loaded
+     */
+    static AnimationFrames getStarFrames() throws IOException {
+        return AssetLoader.await(starFrames);
+    }
+    
+    /**
+     * Returns the number of evenly spaced rotations of the satellite image that are kept
+     * @return The number of rotations in a full turn, or 0 if the image is rotated every time it is drawn
+     */
+    static int getSatelliteRotations() {
+        return satelliteRotations;
+    }
+    
+    /**
+     * Waits until the satellite image is loaded and returns it
+     * @return The satellite image, or null if it could not be read
+     * @throws IOException If the image could not be loaded
+     */
+    static BufferedImage getSatelliteImage() throws IOException {
+        return AssetLoader.await(satelliteImage);
+    }
+    
+    /**
+     * Returns the integrator that the satellite is advanced with
+     * @return The chosen integrator, or null if the satellite follows the closed-form orbit
+     */
+    static Integrator getIntegrator() {
+        return integrator;
+    }
+    
+    /**
+     * Returns the number of samples per period that the closed-form orbit is interpolated from
+     * @return The resolution of the orbit's ephemeris, or 0 if the orbit is solved for every frame
+     */
+    static int getEphemerisSamples() {
+        return ephemerisSamples;
+    }
+    
+    /**
+     * Returns the file that the satellite is recorded to
+     * @return The path of the recording, or null if the satellite is not recorded
+     */
+    static Path getRecordPath() {
+        return recordPath;
+    }
+    
+    /**
+     * Returns the file that the next recording is written to, which is the record path for the first recording and the record
+     * path with -2, -3 and so on added before its extension for every later one so that saving settings never overwrites an
+     * earlier recording
+     * @return The path of the next recording
+     */
+    static Path nextRecordingPath() {
+        if(++recordings == 1)
+            return recordPath;
+        String name = recordPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String numbered = dot > 0 ? name.substring(0, dot) + "-" + recordings + name.substring(dot) : name + "-" + recordings;
+        return recordPath.resolveSibling(numbered);
+    }
+    
+    /**
+     * Returns the recording that drives the satellite instead of the live physics
+     * @return The replayed recording, or null if the satellite is simulated live
+     */
+    static TrajectoryReplayer getReplayer() {
+        return replayer;
+    }
+    
+    /**
+     * Returns the factor that simulated time is sped up by compared to real time
+     * @return The time warp from 1 to MAX_TIME_WARP
+     */
+    static double getTimeWarp() {
+        return timeWarp;
+    }
+    
     /**
      * Returns planet object
      * @return Planet object
@@ -1215,17 +1774,49 @@ class Runner extends JPanel implements ActionListener, KeyListener {
      * @param resource Resource absolute path relative to project directory
      * @return URL to requested resource
      */
-    private static URL getResource(String resource) {
+    static URL getResource(String resource) {
         return Runner.class.getResource(resource);
     }
     
     /**
-     * Repaints Runner JPanel every time the repaintTimer ticks
+     * Returns whether something is animating that needs the full frame rate, which is a pop-up expanding or contracting or the
+     * orbit being sped up. The star's frames and the orbit at its normal speed are always animating too, but they change no
+     * faster than the idle rate of FrameScheduler, so they do not need the full rate.
+     * @return Whether or not the full frame rate is needed
+     */
+    private static boolean isAnimating() {
+        return timeWarp != 1 || isChanging(credits) || isChanging(settings) || isChanging(error);
+    }
+    
+    /**
+     * Returns whether a pop-up is expanding or contracting
+     * @param popUp The pop-up to check
+     * @return Whether or not the pop-up is still changing size
+     */
+    private static boolean isChanging(PopUp popUp) {
+        return popUp.getExpanding() ? popUp.percentageExpanded() < 1 : popUp.percentageExpanded() > 0;
+    }
+    
+    /**
+     * Returns whether the orbit is covered by the fully expanded settings pop-up
+     * @return Whether or not the orbit is covered
+     */
+    private static boolean isOrbitCovered() {
+        return settings.percentageExpanded() == 1.0;
+    }
+    
+    /**
+     * Repaints Runner JPanel when the repaintTimer ticks, setting the time until the next tick from the repaintScheduler
      * @param e The ActionEvent that can be used to refer to a variety of details regarding why the actionPerformed method was called
      */
     @Override
     public void actionPerformed(ActionEvent e) {
-        mainFrame.repaint();
+        long frameNanos = repaintScheduler.getFrameNanos();
+        repaintTimer.setDelay((int) Math.max(REPAINT_DELAY, (frameNanos == FrameScheduler.PAUSED ? FrameScheduler.PAUSED_POLL_NANOS : frameNanos) / 1000000));
+        if(frameNanos != FrameScheduler.PAUSED) {
+            tick();
+            repaintChanged();
+        }
     }
     
     /**
@@ -1253,6 +1844,12 @@ class Runner extends JPanel implements ActionListener, KeyListener {
             else if(credits.percentageExpanded() == 1.0)
                 credits.setExpanding(false);
         }
+        
+        //The up and down arrow keys speed up and slow down time by a factor of ten
+        else if(e.getKeyCode() == KeyEvent.VK_UP)
+            timeWarp = Math.min(timeWarp * 10, MAX_TIME_WARP);
+        else if(e.getKeyCode() == KeyEvent.VK_DOWN)
+            timeWarp = Math.max(timeWarp / 10, 1);
     }
     
     /**
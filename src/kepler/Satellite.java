@@ -4,22 +4,21 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
-import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
-import java.math.BigDecimal;
+import java.io.IOException;
 
 /**
  * The class that represents the satellite that orbits the planet
  */
 class Satellite {
     /**
-     * The height and width of the ellipse that is the satellite
+     * The number of fixed steps per period that the satellite is integrated with when an integrator is chosen
      */
-    private static final int SATELLITE_HEIGHT_WIDTH = 30;
+    private static final int STEPS_PER_PERIOD = 2000;
     
     /**
      * The last time of System.nanoTime() that was recorded last
@@ -27,72 +26,69 @@ class Satellite {
     private long lastTime;
     
     /**
-     * The physics gravitational constant accurate to some degree
+     * The rate in radians/second at which the satellite spins about its own axis in real time, which is the original π/400
+     * radians per 2 millisecond tick of the repaintTimer
      */
-    private static final double GRAVITATIONAL_CONSTANT = 6.671281903963040991511534289 * Math.pow(10, -11);
+    private static final double AXIS_ANGULAR_VELOCITY = -Math.PI / 400 / 0.002;
     
     /**
-     * The orbitAngle from 0 to 2π of the satellite's center relative to the positive x-axis with an origin at the planet's center
-     */
-    private double orbitAngle = 0;
-    
-    /**
-     * The rate at which the satellite rotates about its own axis
+     * The angle that the satellite has spun to about its own axis
      */
     private double axisAngle = 0;
     
     /**
-     * The instantaneous distance between the center of the elliptical orbit and the satellite in pixels
+     * The position in pixels of the satellite's center relative to the planet's center, with y pointing up
      */
-    private double visualRadius;
+    private double x, y;
     
     /**
-     * The instantaneous distance between the center of the elliptical orbit and the satellite in pixels
+     * The areas of the frame covered by the satellite when it was last drawn and where it will be drawn next
      */
-    private double radius;
+    private final Rectangle lastBounds = new Rectangle(), bounds = new Rectangle();
     
     /**
-     * The net velocity of the satellite
+     * The values of the orbit that do not change until the settings are saved again
      */
-    private double velocity;
+    private final OrbitElements elements;
     
     /**
-     * The component of the velocity perpendicular to the radius
+     * The headless simulation of the orbit that this satellite displays
      */
-    private double transverseVelocity;
+    private Orbit orbitModel;
     
     /**
-     * The component of velocity parallel to the radius
+     * The fixed-step integration of the satellite's motion, or null if the satellite follows the closed-form orbit
      */
-    private double radialVelocity;
+    private FixedStepSimulation simulation;
     
     /**
-     * The smallest distance between the orbited mass' center of mass and the orbiting mass' center of mass during a period
+     * The recording that drives the satellite instead of the live physics, or null if the satellite is simulated live
      */
-    private double periapsis;
+    private final TrajectoryReplayer replayer;
     
     /**
-     * The largest distance between the orbited mass' center of mass and the orbiting mass' center of mass during a period
+     * The index of the replayed record that the satellite is currently at
      */
-    private double apoapsis;
+    private int replayRecord = 0;
     
     /**
-     * Thw time it takes the satellite to orbit once around the planet
+     * The recorder that every drawn state is appended to, or null if the satellite is not being recorded, which is volatile
+     * since the recorder can be closed by the shutdown hook
      */
-    private double period;
+    private volatile TrajectoryRecorder recorder;
     
     /**
-     * The actual given radii of the semi-major and semi-minor axes of the ellipse in meters
+     * The total simulated time in seconds since the satellite was first drawn
      */
-    private double radiusMajor, radiusMinor;
+    private double simulatedTime = 0;
     
     /**
-     * The scaled radii of the semi-major and semi-minor axes of the ellipse in pixels
+     * The time warp that the satellite actually moved at in the last update
      */
-    private double radiusMajorVisual, radiusMinorVisual;
+    private double timeWarp = 1;
     
     /**
-     * Represents whether or not it is the first time that the Satellite.draw() method has been called
+     * Represents whether or not it is the first time that the Satellite.update() method has been called
      */
     private boolean isFirstTime = true;
     
@@ -101,11 +97,6 @@ class Satellite {
      */
     private Ellipse2D orbit;
     
-    /**
-     * The ellipse representing the satellite
-     */
-    private Ellipse2D satellite;
-    
     /**
      * Thickness of the line drawn for the orbit
      */
@@ -121,63 +112,166 @@ class Satellite {
      */
     private static BufferedImage satelliteImage;
     
+    /**
+     * The satellite image rotated to each of the angles that it is drawn at, or null if it is rotated every time it is drawn
+     */
+    private static RotationCache satelliteRotations;
+    
+    /**
+     * The transform that the satellite image is drawn with when it is rotated every time it is drawn, which is reused
+     */
+    private final AffineTransform trans = new AffineTransform();
+    
     /**
      * Satellite constructor that sets the actual and visual axes, gets the satellite image, and sets up the orbit ellipse
      * @param radiusOne One of the actual radii of the elliptical orbits in meters
      * @param radiusTwo One of the actual radii of the elliptical orbits in meters
      */
     Satellite(double radiusOne, double radiusTwo) {
-        if(Runner.isFirstTime())
-            satelliteImage = Runner.getCompatibleImage("/planet.png");
+        if(Runner.isFirstTime()) {
+            try {
+                satelliteImage = Runner.getSatelliteImage();
+                if(Runner.getSatelliteRotations() > 0)
+                    satelliteRotations = new RotationCache(satelliteImage, Runner.getSatelliteRotations());
+            }
+            catch(IOException e) {
+                e.printStackTrace();
+            }
+        }
         Runner.setFirstTimeFalse();
         
-        //Sets the major axis to the larger of the two given radii
-        radiusMajor = Math.max(radiusOne, radiusTwo);
-        radiusMinor = radiusOne + radiusTwo - radiusMajor;
+        //Gets planet, computes the orbit's constant values once and sets up the headless orbit scaled to the frame
+        planet = Runner.getPlanet();
+        elements = new OrbitElements(radiusOne, radiusTwo, planet.getMass(), Runner.frameWidth(), Runner.frameHeight());
+        
+        //Interpolates the orbit from a cached sampled period, which is only sampled the first time the orbit is shown recently
+        if(Runner.getEphemerisSamples() > 0)
+            orbitModel = new Orbit(elements, EphemerisCache.get(elements, Runner.getEphemerisSamples()));
+        else
+            orbitModel = new Orbit(elements);
         
-        //Sets visual major and minor axes based on which way the full elliptical orbit fits
-        if(radiusMinor / radiusMajor * (Runner.frameWidth() / 2 - SATELLITE_HEIGHT_WIDTH - 35) <= Runner.frameHeight() / 2 - SATELLITE_HEIGHT_WIDTH - 35) {
-            radiusMajorVisual = Runner.frameWidth() / 2 - SATELLITE_HEIGHT_WIDTH - 35;
-            radiusMinorVisual = radiusMinor / radiusMajor * radiusMajorVisual;
+        //If an integrator was chosen, the satellite is integrated as a massless body starting from the periapsis like the orbit
+        if(Runner.getIntegrator() != null) {
+            NBodySystem system = new NBodySystem(planet.getMass(), 1);
+            system.addOnOrbit(radiusOne, radiusTwo, 0);
+            system.setIntegrator(Runner.getIntegrator());
+            simulation = new FixedStepSimulation(system, elements.getPeriod() / STEPS_PER_PERIOD);
         }
-        else {
-            radiusMinorVisual = Runner.frameHeight() / 2 - SATELLITE_HEIGHT_WIDTH - 35;
-            radiusMajorVisual = radiusMajor / radiusMinor * radiusMinorVisual;
+        
+        //Either replays a recording or records the live physics if either was chosen
+        replayer = Runner.getReplayer();
+        if(replayer == null && Runner.getRecordPath() != null) {
+            try {
+                recorder = new TrajectoryRecorder(Runner.nextRecordingPath(), elements);
+            }
+            catch(IOException e) {
+                e.printStackTrace();
+            }
         }
         
-        //Gets planet and allows it to set its center coordinates based on the radii of the orbit
-        planet = Runner.getPlanet();
+        //Starts the satellite at the periapsis until it is first updated
+        x = elements.getPeriapsis() * elements.getVisualScale();
+        
+        //Allows the planet to set its center coordinates based on the radii of the orbit
         planet.setCenterCoordinates(this);
         
-        //Initializes radius and sets up orbit ellipse
-        visualRadius = getVisualRadius(orbitAngle);
-        radius = visualRadius * radiusMajor / radiusMajorVisual;
+        //Sets up orbit ellipse
+        double radiusMajorVisual = elements.getRadiusMajorVisual();
+        double radiusMinorVisual = elements.getRadiusMinorVisual();
         orbit = new Ellipse2D.Double((Runner.frameWidth() - 2 * radiusMajorVisual) / 2.0, (Runner.frameHeight() - 2 * radiusMinorVisual) / 2.0, 2 * radiusMajorVisual, 2 * radiusMinorVisual);
-        satellite = new Ellipse2D.Double(radiusMajorVisual - SATELLITE_HEIGHT_WIDTH / 2, -SATELLITE_HEIGHT_WIDTH / 2, SATELLITE_HEIGHT_WIDTH, SATELLITE_HEIGHT_WIDTH);
     }
     
     /**
-     * Calculates and returns the instantaneous angular velocity of the satellite in radians/second using ω = b/r^2 * sqrt(GM/a)
+     * Returns the instantaneous angular velocity of the satellite in radians/second
      * @return Instantaneous angular velocity
      */
     double getAngularVelocity() {
-        return radiusMinor / Math.pow(radius, 2) * Math.sqrt(GRAVITATIONAL_CONSTANT * planet.getMass() / radiusMajor);
+        if(replayer != null)
+            return replayer.getTransverseVelocity(replayRecord) / replayer.getRadius(replayRecord);
+        if(simulation != null)
+            return simulation.getSystem().getTransverseVelocity(0) / simulation.getSystem().getRadius(0);
+        return orbitModel.getAngularVelocity();
     }
     
     /**
-     * Changes the instantaneous radius based on the orbitAngle using r = (2 * h * b^2 * cos(theta) + sqrt(2) * a * b * sqrt(a^2 * (1 - cos(2 * theta)) + b^2 * (1 + cos(2 * theta)) + h^2 * (cos(2 * theta) - 1))) / (2 * (a^2 * sin^2(theta) + b^2cos^2(theta))
-     * (Modified from the usual ab/sqrt(a^2sin^2(theta) + b^2cos^2(theta)) to shift the ellipse such that the radius is relative to the right focus)
+     * Advances the orbit by the time elapsed since the last call and moves the satellite to the resulting orbitAngle and radius
+     * without drawing it, so that the area it moved across is known before anything is painted
      */
-    private double getVisualRadius(double theta) {
-        double focusLength = -(planet.getCenterX() - Runner.frameWidth() / 2.0);
-        double majorSquared = Math.pow(radiusMajorVisual, 2);
-        double minorSquared = Math.pow(radiusMinorVisual, 2);
-        double cosTwoTheta = Math.cos(2 * theta);
-        return (2 * focusLength * minorSquared * Math.cos(theta) + Math.sqrt(2) * radiusMajorVisual * radiusMinorVisual * Math.sqrt(majorSquared * (1 - cosTwoTheta) + minorSquared * (1 + cosTwoTheta) + Math.pow(focusLength, 2) * (cosTwoTheta - 1))) / (2 * (majorSquared * Math.pow(Math.sin(theta), 2) + minorSquared * Math.pow(Math.cos(theta), 2)));
+    void update() {
+        /*
+         * Originally advanced by 0.002 seconds since that is roughly the rate of the timer tick. The current time is then
+         * stored into the last time, and the difference between the current time and last time is used to advance the
+         * orbit to get an accurate period of orbit
+         */
+        double elapsed;
+        if(isFirstTime) {
+            isFirstTime = false;
+            elapsed = 0.002;
+            lastTime = System.nanoTime();
+        }
+        else {
+            long currentTime = System.nanoTime();
+            elapsed = (currentTime - lastTime) / 1000000000.0;
+            lastTime = currentTime;
+        }
+        axisAngle += AXIS_ANGULAR_VELOCITY * elapsed;
+        
+        //Speeds up the simulated time by the chosen time warp
+        double realElapsed = elapsed;
+        timeWarp = Runner.getTimeWarp();
+        elapsed *= timeWarp;
+        simulatedTime += elapsed;
+        
+        /*
+         * A replayed satellite is drawn at the last record at or before the simulated time, looping back to the start of the
+         * recording once it ends. The integrated satellite is drawn between its last two fixed steps, while the orbit can be
+         * moved to any time directly.
+         */
+        if(replayer != null) {
+            double end = replayer.getTime(replayer.size() - 1);
+            replayRecord = replayer.seek(end > 0 ? simulatedTime % end : 0);
+            double visualRadius = replayer.getRadius(replayRecord) * elements.getVisualScale();
+            x = visualRadius * Math.cos(replayer.getAngle(replayRecord));
+            y = visualRadius * Math.sin(replayer.getAngle(replayRecord));
+        }
+        else if(simulation != null) {
+            /*
+             * The integrator drops the time that it cannot step through within its budget at high time warps, so the simulated
+             * time that is recorded, exported and shown follows the time that it actually stepped through
+             */
+            simulation.advance(elapsed);
+            simulatedTime = simulation.getTime();
+            if(simulation.getDroppedTime() > 0 && realElapsed > 0)
+                timeWarp = (elapsed - simulation.getDroppedTime()) / realElapsed;
+            x = simulation.getInterpolatedX(0) * elements.getVisualScale();
+            y = simulation.getInterpolatedY(0) * elements.getVisualScale();
+        }
+        else {
+            orbitModel.step(elapsed);
+            x = orbitModel.getVisualRadius() * Math.cos(orbitModel.getOrbitAngle());
+            y = orbitModel.getVisualRadius() * Math.sin(orbitModel.getOrbitAngle());
+        }
+        
+        //Appends the state to the recording, which stops recording if the file cannot be written to
+        TrajectoryRecorder recorder = this.recorder;
+        if(recorder != null) {
+            try {
+                recorder.record(simulatedTime, getOrbitAngle(), getRadius(), getRadialVelocity(), getTransverseVelocity());
+            }
+            catch(IOException e) {
+                e.printStackTrace();
+                closeRecorder();
+            }
+        }
+        
+        //The spinning image covers at most a square as wide as its diagonal, plus a pixel for antialiasing
+        int halfSize = (int) Math.ceil(Math.hypot(satelliteImage.getWidth(), satelliteImage.getHeight()) / 2) + 1;
+        lastBounds.setBounds(bounds);
+        bounds.setBounds((int) Math.floor(x + planet.getCenterX()) - halfSize, (int) Math.floor(-y + planet.getCenterY()) - halfSize, 2 * halfSize + 1, 2 * halfSize + 1);
     }
     
     /**
-     * Draws the satellite at the given orbitAngle and radius relative to the center of the ellipse and changes related values accordingly
+     * Draws the satellite where it was last moved to by update()
      * @param g The graphics object used for drawing
      */
     void draw(Graphics g) {
@@ -185,85 +279,83 @@ class Satellite {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        //Gets the visual and actual radii
-        visualRadius = getVisualRadius(orbitAngle);
-        radius = visualRadius * radiusMajor / radiusMajorVisual;
+        //Copies the satellite already rotated to the nearest kept angle, centered on its position
+        if(satelliteRotations != null) {
+            satelliteRotations.draw(g2d, axisAngle, x + planet.getCenterX(), -y + planet.getCenterY());
+            return;
+        }
         
         /*
          * Transformations made to get x and y position of satellite based on the radius and orbitAngle with the origin at the
          * right focus, rotate the satellite object on its axis, and therefore used to draw the position and rotation of
          * the satellite
          */
-        AffineTransform trans = new AffineTransform();
-        trans.translate(visualRadius * Math.cos(orbitAngle) + planet.getCenterX() - satelliteImage.getWidth() / 2.0, visualRadius * -Math.sin(orbitAngle) + planet.getCenterY() - satelliteImage.getHeight() / 2.0);
-        axisAngle += -Math.PI/400;
+        trans.setToTranslation(x + planet.getCenterX() - satelliteImage.getWidth() / 2.0, -y + planet.getCenterY() - satelliteImage.getHeight() / 2.0);
         trans.rotate(axisAngle, satelliteImage.getWidth()/2.0, satelliteImage.getHeight()/2.0);
         g2d.drawImage(satelliteImage, trans, null);
-        
-        //Calculates values that can be displayed using settings options
-        velocity = Math.sqrt(GRAVITATIONAL_CONSTANT * planet.getMass() * (2 / radius - 1 / radiusMajor));
-        transverseVelocity = getAngularVelocity() * radius;
-        Point2D scientificVelocity = getScientific(velocity, 0);
-        Point2D scientificTransverseVelocity = getScientific(transverseVelocity, 0);
-        
-        //If the velocity and transverse velocity are approximately equal, set the radial velocity to 0
-        if(scientificVelocity.getY() == scientificTransverseVelocity.getY() && new BigDecimal(scientificVelocity.getX()).setScale(10, BigDecimal.ROUND_HALF_UP).equals(new BigDecimal(scientificTransverseVelocity.getX()).setScale(10, BigDecimal.ROUND_HALF_UP)))
-            radialVelocity = 0;
-        else
-            radialVelocity = Math.sqrt(Math.pow(velocity, 2) - Math.pow(transverseVelocity, 2));
-        if(Double.isNaN(radialVelocity))
-            radialVelocity = 0;
-        periapsis = getVisualRadius(0) * radiusMajor / radiusMajorVisual;
-        apoapsis = getVisualRadius(Math.PI) * radiusMajor / radiusMajorVisual;
-        period = 2 * Math.PI * Math.sqrt(Math.pow(radiusMajor, 3) / (GRAVITATIONAL_CONSTANT * planet.getMass()));
-        
-        /*
-         * Originally multiplied by 0.002 since that is roughly the rate of the timer tick. The current time is then stored
-         * into the last time, and the difference between the current time and last time is multiplied by the angular
-         * velocity to get an accurate period of orbit
-         */
-        if(isFirstTime) {
-            isFirstTime = false;
-            orbitAngle += 0.002 * getAngularVelocity();
-            lastTime = System.nanoTime();
-        }
-        else {
-            long currentTime = System.nanoTime();
-            orbitAngle += (currentTime - lastTime) / 1000000000.0 * getAngularVelocity();
-            lastTime = currentTime;
+    }
+    
+    /**
+     * Adds the areas that the satellite was last drawn over and will be drawn over next, which both change when it moves
+     * @param regions The changed areas of the frame to add to
+     */
+    void addDirtyRegions(DirtyRegions regions) {
+        regions.add(lastBounds);
+        regions.add(bounds);
+    }
+    
+    /**
+     * Returns the number of rotations of the satellite image that have been drawn and kept so far
+     * @return The number of kept rotations, or 0 if the image is rotated every time it is drawn
+     */
+    static int getRenderedRotations() {
+        return satelliteRotations == null ? 0 : satelliteRotations.getRendered();
+    }
+    
+    /**
+     * Returns the total simulated time since the satellite was first drawn, which includes the time warp
+     * @return The simulated time in seconds
+     */
+    double getSimulatedTime() {
+        return simulatedTime;
+    }
+    
+    /**
+     * Returns the time warp that the satellite actually moved at in the last update, which is lower than the chosen time warp
+     * when the integrator could not step through all of the warped time
+     * @return The achieved time warp
+     */
+    double getTimeWarp() {
+        return timeWarp;
+    }
+    
+    /**
+     * Returns the current orbitAngle of the satellite relative to its periapsis
+     * @return The orbitAngle from 0 to 2π
+     */
+    private double getOrbitAngle() {
+        if(replayer != null)
+            return replayer.getAngle(replayRecord);
+        if(simulation != null) {
+            double angle = Math.atan2(simulation.getSystem().getY(0), simulation.getSystem().getX(0));
+            return angle < 0 ? angle + 2 * Math.PI : angle;
         }
-        
-        //If the orbitAngle is greater than 2π, subtract 2π since there is no need to let it have a chance of overflowing
-        if(orbitAngle >= 2 * Math.PI)
-            orbitAngle -= 2 * Math.PI;
+        return orbitModel.getOrbitAngle();
     }
     
     /**
-     * Returns a point that contains the base and the power of 10 for scientific notation
-     * @param number The number that is divided or multiplied by a power of ten to get it within 0 <= n < 10
-     * @param power  The power of ten that the base is being multiplied by to make the overall number
-     * @return       A Point2D object with the x-coordinate being the base and the y-cooordinate being the power of 10
-     */
-    private Point2D getScientific(double number, int power) {
-        if(Double.isInfinite(number))
-            return new Point2D.Double(Double.POSITIVE_INFINITY, 0);
-        else if(Double.isNaN(number) || number == 0)
-            return new Point2D.Double(0, 0);
-        else if(number >= 10)
-            return getScientific(number / 10.0, power + 1);
-        else if(number < 1)
-            return getScientific(number * 10, power - 1);
-        else {
-            BigDecimal bignumber = new BigDecimal(number);
-            if(bignumber.doubleValue() >= 10) {
-                bignumber = bignumber.divide(BigDecimal.TEN, BigDecimal.ROUND_HALF_UP);
-                ++power;
+     * Stops recording the satellite and writes what was recorded to the disk
+     */
+    void closeRecorder() {
+        TrajectoryRecorder recorder = this.recorder;
+        if(recorder != null) {
+            this.recorder = null;
+            try {
+                recorder.close();
             }
-            else if(bignumber.doubleValue() < 1) {
-                bignumber = bignumber.multiply(BigDecimal.TEN);
-                --power;
+            catch(IOException e) {
+                e.printStackTrace();
             }
-            return new Point2D.Double(bignumber.doubleValue(), power);
         }
     }
     
@@ -282,7 +374,7 @@ class Satellite {
      * @return The scaled semi-major axis
      */
     double getRadiusMajorVisual() {
-        return radiusMajorVisual;
+        return elements.getRadiusMajorVisual();
     }
     
     /**
@@ -290,93 +382,96 @@ class Satellite {
      * @return The scaled semi-minor axis
      */
     double getRadiusMinorVisual() {
-        return radiusMinorVisual;
+        return elements.getRadiusMinorVisual();
     }
     
     /**
-     * Finds out if the satellite and planet ellipses would intersect and the point at which they are closest.
-     * @return Whether or not the satellite and planet would intersect
+     * Returns the distance in pixels between the center of the ellipse and the planet at its right focus
+     * @return The scaled focal distance
      */
-    boolean intersectsPlanet(double radiusOne, double radiusTwo) {
-        //Sets the major axis to the larger of the two given radii
-        double radiusMajor = Math.max(radiusOne, radiusTwo);
-        double radiusMinor = radiusOne + radiusTwo - radiusMajor;
-        double radiusMajorVisual, radiusMinorVisual;
-        
-        //Sets visual major and minor axes based on which way the full elliptical orbit fits
-        if(radiusMinor / radiusMajor * (Runner.frameWidth() / 2 - SATELLITE_HEIGHT_WIDTH - 35) <= Runner.frameHeight() / 2 - SATELLITE_HEIGHT_WIDTH - 35) {
-            radiusMajorVisual = Runner.frameWidth() / 2 - SATELLITE_HEIGHT_WIDTH - 35;
-            radiusMinorVisual = radiusMinor / radiusMajor * radiusMajorVisual;
-        }
-        else {
-            radiusMinorVisual = Runner.frameHeight() / 2 - SATELLITE_HEIGHT_WIDTH - 35;
-            radiusMajorVisual = radiusMajor / radiusMinor * radiusMinorVisual;
-        }
-        
-        //Sets the satellite's and planet's positions based on the hypothetical radii
-        satellite.setFrame(radiusMajorVisual - SATELLITE_HEIGHT_WIDTH / 2, -SATELLITE_HEIGHT_WIDTH / 2, SATELLITE_HEIGHT_WIDTH, SATELLITE_HEIGHT_WIDTH);
-        planet.setPlanetEllipse(radiusMajorVisual, radiusMinorVisual);
-        
-        //Checks whether or not the planet and satellite would collide
-        Area satelliteArea = new Area(satellite);
-        satelliteArea.intersect(new Area(planet.getPlanet()));
-        return !satelliteArea.isEmpty();
+    double getFocalDistanceVisual() {
+        return elements.getFocalDistanceVisual();
+    }
+    
+    /**
+     * Returns the values of the orbit that do not change until the settings are saved again, so that they can be shared
+     * without being recomputed
+     * @return The orbit's elements
+     */
+    OrbitElements getElements() {
+        return elements;
     }
     
     /**
      * Returns velocity of satellite
      * @return Satellite velocity
      */
-    Double getVelocity() {
-        return velocity;
+    double getVelocity() {
+        if(replayer != null)
+            return Math.hypot(replayer.getRadialVelocity(replayRecord), replayer.getTransverseVelocity(replayRecord));
+        if(simulation != null)
+            return simulation.getSystem().getVelocity(0);
+        return orbitModel.getVelocity();
     }
     
     /**
      * Returns the component of the velocity of the satellite that is perpendicular to the radius
      * @return Satellite velocity component perpendicular to radius
      */
-    Double getTransverseVelocity() {
-        return transverseVelocity;
+    double getTransverseVelocity() {
+        if(replayer != null)
+            return replayer.getTransverseVelocity(replayRecord);
+        if(simulation != null)
+            return simulation.getSystem().getTransverseVelocity(0);
+        return orbitModel.getTransverseVelocity();
     }
     
     /**
      * Returns the component of the velocity of the satellite that is parallel to the radius
      * @return Satellite velocity component parallel to radius
      */
-    Double getRadialVelocity() {
-        return radialVelocity;
+    double getRadialVelocity() {
+        if(replayer != null)
+            return replayer.getRadialVelocity(replayRecord);
+        if(simulation != null)
+            return simulation.getSystem().getRadialVelocity(0);
+        return orbitModel.getRadialVelocity();
     }
     
     /**
      * Gets the smallest distance between the orbited mass and orbiting mass during a period
      * @return Periapsis of orbit
      */
-    Double getPeriapsis() {
-        return periapsis;
+    double getPeriapsis() {
+        return elements.getPeriapsis();
     }
     
     /**
      * Gets the largest distance between the centers of masses of the orbited mass and orbiting mass during a period
      * @return Apoapsis of orbit
      */
-    Double getApoapsis() {
-        return apoapsis;
+    double getApoapsis() {
+        return elements.getApoapsis();
     }
     
     /**
      * Returns instantaneous distance between the centers of masses of the orbited mass and orbiting mass
      * @return Instantaneous radius
      */
-    Double getRadius() {
-        return radius;
+    double getRadius() {
+        if(replayer != null)
+            return replayer.getRadius(replayRecord);
+        if(simulation != null)
+            return simulation.getSystem().getRadius(0);
+        return orbitModel.getRadius();
     }
     
     /**
      * Returns the period of the satellite
      * @return Satellite period
      */
-    Double getPeriod() {
-        return period;
+    double getPeriod() {
+        return elements.getPeriod();
     }
     
 }
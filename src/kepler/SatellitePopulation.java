@@ -0,0 +1,326 @@
+package kepler;
+
+import java.util.Arrays;
+
+/**
+ * Many satellites orbiting the same planet, with each orbital element and state value kept in its own primitive column so that
+ * the whole population can be advanced in one loop without allocating per satellite
+ */
+class SatellitePopulation {
+    /**
+     * The number of satellites that there is room for when no capacity is given
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /**
+     * The largest difference between two Newton iterations of a satellite's eccentric anomaly that is considered converged,
+     * which is looser than KeplerPropagator's since each step starts from a guess that is already close
+     */
+    private static final double TOLERANCE = 1e-12;
+    
+    /**
+     * The largest Newton correction that the iteration can stop after, which is small enough for the error left after it to be
+     * estimated from the correction alone and for the sine and cosine to be moved by it to second order within 2e-16
+     */
+    private static final double CONVERGED_CORRECTION = 1e-5;
+    
+    /**
+     * The gravitational constant multiplied by the mass of the orbited planet
+     */
+    private final double gravitationalParameter;
+    
+    /**
+     * The number of satellites in the population
+     */
+    private int size = 0;
+    
+    /**
+     * The semi-major and semi-minor axes of each orbit in meters
+     */
+    private double[] radiusMajor, radiusMinor;
+    
+    /**
+     * The eccentricity of each orbit
+     */
+    private double[] eccentricity;
+    
+    /**
+     * The precomputed sqrt((1 + e)/(1 - e)) of each orbit used to convert the eccentric anomaly to the true anomaly
+     */
+    private double[] trueAnomalyFactor;
+    
+    /**
+     * The average angular velocity of each satellite in radians/second
+     */
+    private double[] meanMotion;
+    
+    /**
+     * The period of each orbit in seconds
+     */
+    private double[] period;
+    
+    /**
+     * The time in seconds since each satellite was last at its periapsis
+     */
+    private double[] time;
+    
+    /**
+     * The eccentric anomaly of each satellite, which is also the starting guess when solving Kepler's equation for the next step
+     */
+    private double[] eccentricAnomaly;
+    
+    /**
+     * The sine of each satellite's eccentric anomaly, which moves the starting guess of the next step forward to second order
+     */
+    private double[] eccentricAnomalySin;
+    
+    /**
+     * The orbitAngle from 0 to 2π of each satellite relative to the positive x-axis with an origin at the planet's center
+     */
+    private double[] angle;
+    
+    /**
+     * The instantaneous distance in meters between the planet and each satellite
+     */
+    private double[] radius;
+    
+    /**
+     * The net velocity of each satellite
+     */
+    private double[] velocity;
+    
+    /**
+     * SatellitePopulation constructor that takes in the mass of the planet that all of the satellites orbit
+     * @param planetMass The mass in kg of the orbited planet
+     */
+    SatellitePopulation(double planetMass) {
+        this(planetMass, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * SatellitePopulation constructor that takes in the mass of the planet and the number of satellites to make room for
+     * @param planetMass The mass in kg of the orbited planet
+     * @param capacity   The number of satellites that can be added before the columns need to grow
+     */
+    SatellitePopulation(double planetMass, int capacity) {
+        gravitationalParameter = Orbit.GRAVITATIONAL_CONSTANT * planetMass;
+        capacity = Math.max(1, capacity);
+        radiusMajor = new double[capacity];
+        radiusMinor = new double[capacity];
+        eccentricity = new double[capacity];
+        trueAnomalyFactor = new double[capacity];
+        meanMotion = new double[capacity];
+        period = new double[capacity];
+        time = new double[capacity];
+        eccentricAnomaly = new double[capacity];
+        eccentricAnomalySin = new double[capacity];
+        angle = new double[capacity];
+        radius = new double[capacity];
+        velocity = new double[capacity];
+    }
+    
+    /**
+     * Adds a satellite at the periapsis of the orbit with the given radii
+     * @param radiusOne One of the actual radii of the elliptical orbit in meters
+     * @param radiusTwo One of the actual radii of the elliptical orbit in meters
+     * @return The index of the added satellite
+     * @throws IllegalArgumentException If a radius is not positive or the orbit is so eccentric that its eccentricity rounds to 1
+     */
+    int add(double radiusOne, double radiusTwo) {
+        //Sets the major axis to the larger of the two given radii
+        double major = Math.max(radiusOne, radiusTwo);
+        double minor = radiusOne + radiusTwo - major;
+        double e = Math.sqrt(Math.max(0, 1 - Math.pow(minor / major, 2)));
+        if(!(minor > 0) || Double.isInfinite(major))
+            throw new IllegalArgumentException("Both radii have to be positive and finite");
+        if(e >= 1)
+            throw new IllegalArgumentException("The orbit is too eccentric for its eccentricity to be less than 1");
+        
+        if(size == radiusMajor.length)
+            grow();
+        int i = size++;
+        radiusMajor[i] = major;
+        radiusMinor[i] = minor;
+        eccentricity[i] = e;
+        trueAnomalyFactor[i] = Math.sqrt((1 + eccentricity[i]) / (1 - eccentricity[i]));
+        meanMotion[i] = Math.sqrt(gravitationalParameter / Math.pow(radiusMajor[i], 3));
+        period[i] = 2 * Math.PI / meanMotion[i];
+        time[i] = 0;
+        eccentricAnomaly[i] = 0;
+        eccentricAnomalySin[i] = 0;
+        radius[i] = radiusMajor[i] * (1 - eccentricity[i]);
+        update(i, 0);
+        return i;
+    }
+    
+    /**
+     * Doubles the capacity of every column
+     */
+    private void grow() {
+        int capacity = radiusMajor.length * 2;
+        radiusMajor = Arrays.copyOf(radiusMajor, capacity);
+        radiusMinor = Arrays.copyOf(radiusMinor, capacity);
+        eccentricity = Arrays.copyOf(eccentricity, capacity);
+        trueAnomalyFactor = Arrays.copyOf(trueAnomalyFactor, capacity);
+        meanMotion = Arrays.copyOf(meanMotion, capacity);
+        period = Arrays.copyOf(period, capacity);
+        time = Arrays.copyOf(time, capacity);
+        eccentricAnomaly = Arrays.copyOf(eccentricAnomaly, capacity);
+        eccentricAnomalySin = Arrays.copyOf(eccentricAnomalySin, capacity);
+        angle = Arrays.copyOf(angle, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+    }
+    
+    /**
+     * Advances every satellite by the given amount of simulated time
+     * @param seconds The amount of time in seconds to advance the satellites by
+     */
+    void step(double seconds) {
+        step(0, size, seconds);
+    }
+    
+    /**
+     * Advances the satellites with indices from start inclusive to end exclusive by the given amount of simulated time
+     * @param start   The index of the first satellite to advance
+     * @param end     One more than the index of the last satellite to advance
+     * @param seconds The amount of time in seconds to advance the satellites by
+     */
+    void step(int start, int end, double seconds) {
+        for(int i = start; i < end; ++i) {
+            //Keeps the time within one period since the orbit repeats and large times would otherwise lose precision
+            double t = time[i] + seconds;
+            if(t >= period[i] || t < 0)
+                t %= period[i];
+            time[i] = t;
+            update(i, seconds);
+        }
+    }
+    
+    /**
+     * Recalculates the angle, radius, and velocity of a satellite from its time since the periapsis
+     * @param i       The index of the satellite
+     * @param seconds The amount of time in seconds that the satellite was just advanced by
+     */
+    private void update(int i, double seconds) {
+        double e = eccentricity[i];
+        double meanAnomaly = meanMotion[i] * time[i];
+        if(meanAnomaly < 0)
+            meanAnomaly += 2 * Math.PI;
+        
+        /*
+         * Starts from the last eccentric anomaly moved forward by dE = dM * a/r - dM^2 / 2 * e * sin(E) * (a/r)^3, which is
+         * exact to second order since dM/dE = 1 - e * cos(E) = r/a, and then shifts it onto the current revolution in case the
+         * time wrapped around. A change too large for that to be close starts from the same guess as KeplerPropagator instead,
+         * since Newton's method can diverge from a far guess on an eccentric orbit.
+         */
+        double anomaly;
+        double anomalyRate = radiusMajor[i] / radius[i];
+        double anomalyChange = meanMotion[i] * seconds * anomalyRate;
+        if(Math.abs(anomalyChange) < 1) {
+            anomaly = eccentricAnomaly[i] + anomalyChange - anomalyChange * anomalyChange / 2 * e * eccentricAnomalySin[i] * anomalyRate;
+            if(anomaly - meanAnomaly > Math.PI)
+                anomaly -= 2 * Math.PI;
+            else if(meanAnomaly - anomaly > Math.PI)
+                anomaly += 2 * Math.PI;
+        }
+        else
+            anomaly = e < 0.8 ? meanAnomaly + e * Math.sin(meanAnomaly) : Math.PI;
+        
+        /*
+         * Solves Kepler's equation with Newton's method inline so that the sine and cosine of the final iteration can be reused
+         * for the true anomaly and radius instead of being computed again, stopping after as many iterations as KeplerPropagator.
+         * Since Newton's method converges quadratically, the error left after a correction of delta is about
+         * e * sin(E) * delta^2 / (2 * (1 - e * cos(E))), so it stops as soon as that is within the tolerance instead of taking
+         * one more iteration to see a correction that small. The sine and cosine are then moved by the last correction to second
+         * order, which is off by less than delta^3 / 6.
+         */
+        double sin, cos, delta, slope;
+        int iterations = 0;
+        do {
+            sin = Math.sin(anomaly);
+            cos = Math.cos(anomaly);
+            slope = 1 - e * cos;
+            delta = (anomaly - e * sin - meanAnomaly) / slope;
+            anomaly -= delta;
+        } while((Math.abs(delta) > CONVERGED_CORRECTION || e * Math.abs(sin) * delta * delta > 2 * TOLERANCE * slope) && ++iterations < KeplerPropagator.MAX_ITERATIONS);
+        double halfDeltaSquared = delta * delta / 2;
+        double shiftedSin = sin - delta * cos - halfDeltaSquared * sin;
+        cos += delta * sin - halfDeltaSquared * cos;
+        sin = shiftedSin;
+        eccentricAnomaly[i] = anomaly;
+        eccentricAnomalySin[i] = sin;
+        
+        //Uses tan(v/2) = sqrt((1 + e)/(1 - e)) * sin(E)/(1 + cos(E)) since atan is much cheaper than atan2, and r = a(1 - e * cos(E))
+        double trueAnomaly = cos == -1 ? Math.PI : 2 * Math.atan(trueAnomalyFactor[i] * sin / (1 + cos));
+        angle[i] = trueAnomaly < 0 ? trueAnomaly + 2 * Math.PI : trueAnomaly;
+        radius[i] = radiusMajor[i] * (1 - e * cos);
+        velocity[i] = Math.sqrt(gravitationalParameter * (2 / radius[i] - 1 / radiusMajor[i]));
+    }
+    
+    /**
+     * Returns the number of satellites in the population
+     * @return The number of satellites
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the orbitAngle of a satellite relative to the positive x-axis with an origin at the planet's center
+     * @param i The index of the satellite
+     * @return The orbitAngle of the satellite
+     */
+    double getAngle(int i) {
+        return angle[i];
+    }
+    
+    /**
+     * Returns the instantaneous distance between the planet and a satellite in meters
+     * @param i The index of the satellite
+     * @return The instantaneous radius of the satellite
+     */
+    double getRadius(int i) {
+        return radius[i];
+    }
+    
+    /**
+     * Returns the net velocity of a satellite
+     * @param i The index of the satellite
+     * @return The velocity of the satellite
+     */
+    double getVelocity(int i) {
+        return velocity[i];
+    }
+    
+    /**
+     * Returns the instantaneous angular velocity of a satellite in radians/second using ω = b/r^2 * sqrt(GM/a)
+     * @param i The index of the satellite
+     * @return The angular velocity of the satellite
+     */
+    double getAngularVelocity(int i) {
+        return radiusMinor[i] / Math.pow(radius[i], 2) * Math.sqrt(gravitationalParameter / radiusMajor[i]);
+    }
+    
+    /**
+     * Writes the position and velocity of a range of satellites into an array in the layout given by StateVector, one state
+     * after another, which lets callers fetch the full state of many satellites without allocating
+     * @param start  The index of the first satellite
+     * @param end    One more than the index of the last satellite
+     * @param states The array to write the states into, which needs (end - start) * StateVector.SIZE doubles of room
+     */
+    void getStates(int start, int end, double[] states) {
+        for(int i = start; i < end; ++i)
+            StateVector.write(gravitationalParameter, radiusMinor[i] * radiusMinor[i] / radiusMajor[i], eccentricity[i], angle[i], radius[i], states, (i - start) * StateVector.SIZE);
+    }
+    
+    /**
+     * Returns the period of a satellite's orbit in seconds
+     * @param i The index of the satellite
+     * @return The period of the satellite
+     */
+    double getPeriod(int i) {
+        return period[i];
+    }
+    
+}
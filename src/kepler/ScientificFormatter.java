@@ -0,0 +1,125 @@
+package kepler;
+
+/**
+ * Writes numbers in the scientific notation shown on screen, such as "1.23 e 4", straight into a char array so that values
+ * can be formatted every frame without creating any objects
+ */
+class ScientificFormatter {
+    /**
+     * The most chars that one formatted number can take up, which is the length of "-9.99 e -324"
+     */
+    static final int MAX_LENGTH = 12;
+    
+    /**
+     * The text written for infinite numbers
+     */
+    private static final char[] VERY_LARGE = "Very large".toCharArray();
+    
+    /**
+     * The text written between the base and the power of ten
+     */
+    private static final char[] SEPARATOR = " e ".toCharArray();
+    
+    /**
+     * Every power of ten that a double can hold, indexed by its exponent
+     */
+    private static final double[] POWERS_OF_TEN = new double[309];
+    
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < POWERS_OF_TEN.length; ++i)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+    
+    /**
+     * Writes a number with a base rounded to two decimal places and its power of ten, writing "0" for zero and NaN and
+     * "Very large" for infinite numbers
+     * @param value       The number to write
+     * @param destination The array to write the chars into, which needs MAX_LENGTH chars of room after the offset
+     * @param offset      The index in the array to start writing at
+     * @return The index in the array just after the last char written
+     */
+    static int format(double value, char[] destination, int offset) {
+        if(Double.isInfinite(value))
+            return append(VERY_LARGE, destination, offset);
+        if(Double.isNaN(value) || value == 0) {
+            destination[offset] = '0';
+            return offset + 1;
+        }
+        if(value < 0) {
+            destination[offset++] = '-';
+            value = -value;
+        }
+        
+        //Scales the number to a base from 1 to less than 10, multiplying by exact powers of ten where possible
+        int power = (int) Math.floor(Math.log10(value));
+        double base;
+        if(power >= 0)
+            base = value / POWERS_OF_TEN[power];
+        else if(-power < POWERS_OF_TEN.length)
+            base = value * POWERS_OF_TEN[-power];
+        else
+            base = value * 1e16 * POWERS_OF_TEN[-power - 16];
+        if(base >= 10) {
+            base /= 10;
+            ++power;
+        }
+        else if(base < 1) {
+            base *= 10;
+            --power;
+        }
+        
+        //Rounds half up to hundredths, carrying into the power of ten if the base rounds up to 10
+        long hundredths = Math.round(base * 100);
+        if(hundredths >= 1000) {
+            hundredths = Math.round(hundredths / 10.0);
+            ++power;
+        }
+        destination[offset++] = (char) ('0' + hundredths / 100);
+        destination[offset++] = '.';
+        destination[offset++] = (char) ('0' + hundredths / 10 % 10);
+        destination[offset++] = (char) ('0' + hundredths % 10);
+        offset = append(SEPARATOR, destination, offset);
+        return appendInteger(power, destination, offset);
+    }
+    
+    /**
+     * Writes a whole number in decimal
+     * @param value       The number to write
+     * @param destination The array to write the chars into, which needs 11 chars of room after the offset
+     * @param offset      The index in the array to start writing at
+     * @return The index in the array just after the last char written
+     */
+    static int appendInteger(int value, char[] destination, int offset) {
+        if(value < 0) {
+            destination[offset++] = '-';
+            value = -value;
+        }
+        
+        //Writes the digits from last to first, then moves them into place
+        int start = offset;
+        do {
+            destination[offset++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while(value != 0);
+        for(int i = start, j = offset - 1; i < j; ++i, --j) {
+            char swap = destination[i];
+            destination[i] = destination[j];
+            destination[j] = swap;
+        }
+        return offset;
+    }
+    
+    /**
+     * Copies chars into the array
+     * @param source      The chars to copy
+     * @param destination The array to write the chars into
+     * @param offset      The index in the array to start writing at
+     * @return The index in the array just after the last char written
+     */
+    static int append(char[] source, char[] destination, int offset) {
+        System.arraycopy(source, 0, destination, offset, source.length);
+        return offset + source.length;
+    }
+    
+}
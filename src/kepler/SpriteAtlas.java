@@ -0,0 +1,151 @@
+package kepler;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Animation frames packed by AtlasPacker into one image, so that every frame is decoded together and they all share one
+ * texture instead of each frame being its own image
+ *
+ * Frames are drawn by copying their part of the atlas with a single drawImage call. Each frame may have been trimmed when it
+ * was packed, so it is drawn shifted by its offset within the untrimmed frame.
+ */
+class SpriteAtlas implements AnimationFrames {
+    /**
+     * The number of values stored per frame, which are its x, y, width, height, offset x and offset y
+     */
+    private static final int FRAME_VALUES = 6;
+    
+    /**
+     * The image that every frame is packed into
+     */
+    private final BufferedImage image;
+    
+    /**
+     * The width and height of each untrimmed frame
+     */
+    private final int frameWidth, frameHeight;
+    
+    /**
+     * The FRAME_VALUES values of every frame one after the other
+     */
+    private final int[] frames;
+    
+    /**
+     * SpriteAtlas constructor that takes in the packed image and reads where each frame is from its index
+     * @param image The atlas image written by AtlasPacker
+     * @param index The index written along with the image, which is closed once it is read
+     * @throws IOException If the index cannot be read or does not match the image
+     */
+    SpriteAtlas(BufferedImage image, InputStream index) throws IOException {
+        this.image = image;
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(index, StandardCharsets.US_ASCII))) {
+            int[] header = readValues(reader, 3);
+            frameWidth = header[0];
+            frameHeight = header[1];
+            frames = new int[header[2] * FRAME_VALUES];
+            for(int i = 0; i < header[2]; ++i) {
+                int[] frame = readValues(reader, FRAME_VALUES);
+                if(frame[0] < 0 || frame[1] < 0 || frame[0] + frame[2] > image.getWidth() || frame[1] + frame[3] > image.getHeight())
+                    throw new IOException("Frame " + i + " is outside of the atlas image");
+                System.arraycopy(frame, 0, frames, i * FRAME_VALUES, FRAME_VALUES);
+            }
+        }
+        catch(NumberFormatException e) {
+            throw new IOException("The atlas index is not made of whole numbers", e);
+        }
+    }
+    
+    /**
+     * Loads an atlas resource, converting its image to the screen's format with Runner.getCompatibleImage()
+     * @param resource The path of the resource without .png or .txt, such as /starAtlas
+     * @return The loaded atlas
+     * @throws IOException If the image or index cannot be read
+     */
+    static SpriteAtlas load(String resource) throws IOException {
+        BufferedImage image = Runner.getCompatibleImage(resource + ".png");
+        if(image == null)
+            throw new IOException("Cannot read " + resource + ".png");
+        return new SpriteAtlas(image, Runner.getResource(resource + ".txt").openStream());
+    }
+    
+    /**
+     * Reads the next line of the index that is not empty or a comment
+     * @param reader The reader of the index
+     * @param count  The number of values that the line has to have
+     * @return The values on the line
+     * @throws IOException If the index ends early or the line has the wrong number of values
+     */
+    private static int[] readValues(BufferedReader reader, int count) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if(line == null)
+                throw new IOException("The atlas index ended early");
+            line = line.trim();
+        } while(line.isEmpty() || line.startsWith("#"));
+        String[] parts = line.split("\\s+");
+        if(parts.length != count)
+            throw new IOException("Expected " + count + " values in the atlas index line: " + line);
+        int[] values = new int[count];
+        for(int i = 0; i < count; ++i)
+            values[i] = Integer.parseInt(parts[i]);
+        return values;
+    }
+    
+    /**
+     * Draws a frame with the top left corner of its untrimmed bounds at the given point
+     * @param g     The graphics object used for drawing
+     * @param frame The index of the frame from 0 to size() - 1
+     * @param x     The x-coordinate of the frame's top left corner
+     * @param y     The y-coordinate of the frame's top left corner
+     */
+    @Override
+    public void draw(Graphics g, int frame, int x, int y) {
+        int i = frame * FRAME_VALUES;
+        int sourceX = frames[i], sourceY = frames[i + 1], width = frames[i + 2], height = frames[i + 3];
+        int destinationX = x + frames[i + 4], destinationY = y + frames[i + 5];
+        g.drawImage(image, destinationX, destinationY, destinationX + width, destinationY + height, sourceX, sourceY, sourceX + width, sourceY + height, null);
+    }
+    
+    /**
+     * Returns the number of frames in the atlas
+     * @return The number of frames
+     */
+    @Override
+    public int size() {
+        return frames.length / FRAME_VALUES;
+    }
+    
+    /**
+     * Returns the width of each untrimmed frame
+     * @return The frame width in pixels
+     */
+    @Override
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+    
+    /**
+     * Returns the height of each untrimmed frame
+     * @return The frame height in pixels
+     */
+    @Override
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+    
+    /**
+     * Returns the image that every frame is packed into
+     * @return The atlas image
+     */
+    BufferedImage getImage() {
+        return image;
+    }
+    
+}
@@ -0,0 +1,87 @@
+package kepler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records how long each phase of starting the program takes and which thread it ran on, then prints them in order once the
+ * first frame is drawn so that the time until the window first shows something can be broken down
+ *
+ * Phases may be recorded from any thread, so the phases of loading assets in parallel show up next to the phases of setting up
+ * the window on the main thread.
+ */
+class StartupTimeline {
+    /**
+     * The time in nanoseconds that the timeline was created at, which every phase is measured from
+     */
+    private final long start = System.nanoTime();
+    
+    /**
+     * The time in milliseconds between the JVM starting and the timeline being created
+     */
+    private final long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    
+    /**
+     * The names of the recorded phases and the threads that they ran on
+     */
+    private final List<String> names = new ArrayList<>(), threads = new ArrayList<>();
+    
+    /**
+     * The start and end times of the recorded phases in nanoseconds, stored one after the other
+     */
+    private final List<Long> times = new ArrayList<>();
+    
+    /**
+     * Whether the timeline was printed, after which no more phases are recorded
+     */
+    private boolean finished = false;
+    
+    /**
+     * Records a phase that ran on the current thread
+     * @param name       The name of the phase
+     * @param phaseStart The time in nanoseconds that the phase started at
+     * @param phaseEnd   The time in nanoseconds that the phase ended at
+     */
+    synchronized void record(String name, long phaseStart, long phaseEnd) {
+        if(finished)
+            return;
+        names.add(name);
+        threads.add(Thread.currentThread().getName());
+        times.add(phaseStart);
+        times.add(phaseEnd);
+    }
+    
+    /**
+     * Records a phase on the current thread that ends now, which lets phases that follow each other be recorded in turn
+     * @param name       The name of the phase
+     * @param phaseStart The time in nanoseconds that the phase started at
+     * @return The current time in nanoseconds, which is when the next phase starts
+     */
+    long phase(String name, long phaseStart) {
+        long now = System.nanoTime();
+        record(name, phaseStart, now);
+        return now;
+    }
+    
+    /**
+     * Prints every recorded phase in the order that they started in along with the time until the first frame, which only
+     * prints the first time that it is called
+     * @param firstFrame The time in nanoseconds that the first frame was drawn at
+     */
+    synchronized void finish(long firstFrame) {
+        if(finished)
+            return;
+        finished = true;
+        Integer[] order = new Integer[names.size()];
+        for(int i = 0; i < order.length; ++i)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(times.get(2 * a), times.get(2 * b)));
+        System.out.printf("Startup timeline (main started %d ms after the JVM):%n", jvmMillis);
+        for(int i : order)
+            System.out.printf("  %8.1f ms +%7.1f ms  %-32s %s%n", (times.get(2 * i) - start) / 1e6, (times.get(2 * i + 1) - times.get(2 * i)) / 1e6, names.get(i), threads.get(i));
+        System.out.printf("First frame %.1f ms after main started, %.1f ms after the JVM%n", (firstFrame - start) / 1e6, jvmMillis + (firstFrame - start) / 1e6);
+    }
+    
+}
@@ -0,0 +1,66 @@
+package kepler;
+
+/**
+ * The layout of the state vectors that orbits write into caller-provided arrays, along with the closed-form formulas that
+ * give a satellite's position and velocity from its orbital elements and true anomaly
+ *
+ * Each state takes up SIZE doubles starting at its offset, with the position in meters and the velocities in m/s relative to
+ * the planet's center, using the same axes as the orbitAngle
+ */
+final class StateVector {
+    /**
+     * The index within a state of the x and y coordinates of the position
+     */
+    static final int X = 0, Y = 1;
+    
+    /**
+     * The index within a state of the x and y components of the velocity
+     */
+    static final int VELOCITY_X = 2, VELOCITY_Y = 3;
+    
+    /**
+     * The index within a state of the component of the velocity parallel to the radius, which is positive when moving away
+     * from the planet
+     */
+    static final int RADIAL_VELOCITY = 4;
+    
+    /**
+     * The index within a state of the component of the velocity perpendicular to the radius
+     */
+    static final int TRANSVERSE_VELOCITY = 5;
+    
+    /**
+     * The number of doubles that one state takes up
+     */
+    static final int SIZE = 6;
+    
+    /**
+     * StateVector only holds constants and static methods, so it is never constructed
+     */
+    private StateVector() {}
+    
+    /**
+     * Writes the state of a satellite into an array using the velocity components v_r = sqrt(GM/p) * e * sin(v) and
+     * v_t = sqrt(GM/p) * (1 + e * cos(v)), where p = b^2/a is the semi-latus rectum and v is the true anomaly
+     * @param gravitationalParameter The gravitational constant multiplied by the mass of the orbited planet
+     * @param semiLatusRectum        The semi-latus rectum of the orbit in meters
+     * @param eccentricity           The eccentricity of the orbit
+     * @param trueAnomaly            The orbitAngle of the satellite relative to its periapsis
+     * @param radius                 The distance in meters between the planet and the satellite
+     * @param state                  The array to write the state into
+     * @param offset                 The index in the array to start writing at
+     */
+    static void write(double gravitationalParameter, double semiLatusRectum, double eccentricity, double trueAnomaly, double radius, double[] state, int offset) {
+        double cos = Math.cos(trueAnomaly), sin = Math.sin(trueAnomaly);
+        double velocityScale = Math.sqrt(gravitationalParameter / semiLatusRectum);
+        double radialVelocity = velocityScale * eccentricity * sin;
+        double transverseVelocity = velocityScale * (1 + eccentricity * cos);
+        state[offset + X] = radius * cos;
+        state[offset + Y] = radius * sin;
+        state[offset + VELOCITY_X] = radialVelocity * cos - transverseVelocity * sin;
+        state[offset + VELOCITY_Y] = radialVelocity * sin + transverseVelocity * cos;
+        state[offset + RADIAL_VELOCITY] = radialVelocity;
+        state[offset + TRANSVERSE_VELOCITY] = transverseVelocity;
+    }
+    
+}
@@ -0,0 +1,100 @@
+package kepler;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.Graphics2D;
+import java.awt.image.VolatileImage;
+import java.util.function.Consumer;
+
+/**
+ * A layer of the frame that only changes when the orbit does, kept in an accelerated VolatileImage so that it is drawn with a
+ * single blit every frame instead of being drawn again
+ *
+ * The layer is only drawn again when it is invalidated or when its VolatileImage loses its contents, which can happen at any
+ * time, such as when the display mode changes.
+ */
+class StaticLayer {
+    /**
+     * The width and height of the layer in pixels
+     */
+    private final int width, height;
+    
+    /**
+     * Draws the contents of the layer
+     */
+    private final Consumer<Graphics2D> renderer;
+    
+    /**
+     * The image holding the drawn layer, or null before it is first drawn
+     */
+    private VolatileImage image;
+    
+    /**
+     * Whether the image holds the current contents of the layer
+     */
+    private boolean valid = false;
+    
+    /**
+     * The number of times the contents of the layer have been drawn
+     */
+    private int renders = 0;
+    
+    /**
+     * StaticLayer constructor that takes in the size of the layer and what to draw on it
+     * @param width    The width of the layer in pixels
+     * @param height   The height of the layer in pixels
+     * @param renderer Draws the contents of the layer onto an opaque image of the layer's size
+     */
+    StaticLayer(int width, int height, Consumer<Graphics2D> renderer) {
+        this.width = width;
+        this.height = height;
+        this.renderer = renderer;
+    }
+    
+    /**
+     * Marks the layer's contents as changed so that they are drawn again before the layer is next drawn
+     */
+    void invalidate() {
+        valid = false;
+    }
+    
+    /**
+     * Draws the layer at the top left corner, first drawing its contents again if they changed or were lost
+     * @param g             The graphics object used for drawing
+     * @param configuration The graphics configuration of the frame being drawn on
+     */
+    void draw(Graphics2D g, GraphicsConfiguration configuration) {
+        do {
+            int status = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(configuration);
+            if(status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if(image != null)
+                    image.flush();
+                image = configuration.createCompatibleVolatileImage(width, height);
+                valid = false;
+            }
+            else if(status == VolatileImage.IMAGE_RESTORED)
+                valid = false;
+            if(!valid) {
+                Graphics2D layer = image.createGraphics();
+                try {
+                    renderer.accept(layer);
+                }
+                finally {
+                    layer.dispose();
+                }
+                valid = true;
+                ++renders;
+            }
+            g.drawImage(image, 0, 0, null);
+        } while(image.contentsLost());
+    }
+    
+    /**
+     * Returns the number of times the contents of the layer have been drawn, which only goes up when the orbit changes or
+     * the image loses its contents
+     * @return The number of times the layer was drawn
+     */
+    int getRenders() {
+        return renders;
+    }
+    
+}
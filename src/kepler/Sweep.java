@@ -0,0 +1,323 @@
+package kepler;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command-line entry point that evaluates the period, periapsis, apoapsis and collision verdict of every orbit on a grid of
+ * radii and planet masses without any AWT classes, computing blocks of the grid in parallel and streaming them to a CSV or
+ * binary columnar file
+ */
+class Sweep {
+    /**
+     * The number of grid points that are computed together before being written, which bounds the memory used no matter how
+     * large the grid is
+     */
+    private static final int BLOCK_SIZE = 1 << 20;
+    
+    /**
+     * The bytes at the start of a binary sweep file
+     */
+    private static final int BINARY_MAGIC = 0x4B535750;
+    
+    /**
+     * The version of the binary sweep file layout
+     */
+    private static final int BINARY_VERSION = 1;
+    
+    /**
+     * The width and height in pixels of the view that the collision verdict is found for, which match the program's window
+     */
+    private static final int DEFAULT_VIEW_WIDTH = 1200, DEFAULT_VIEW_HEIGHT = 600;
+    
+    /**
+     * The options that can be passed on the command line
+     */
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java kepler.Sweep --radius-one=SPEC --radius-two=SPEC --mass=SPEC [options]",
+            "  SPEC is start:end:count for count evenly spaced values from start to end, with :log appended to space them",
+            "  evenly on a log scale, or a single value",
+            "  --format=csv|binary  The output format, csv by default",
+            "  --out=FILE           The file to write to, standard output by default",
+            "  --threads=N          The number of threads to compute with, the number of available processors by default",
+            "  --view=WIDTHxHEIGHT  The view size used for the collision verdict, 1200x600 by default");
+    
+    /**
+     * The values of the grid along each axis
+     */
+    private final double[] radiiOne, radiiTwo, masses;
+    
+    /**
+     * The width and height in pixels of the view that the collision verdict is found for
+     */
+    private final int viewWidth, viewHeight;
+    
+    /**
+     * The computed columns of the current block
+     */
+    private final double[] radiusOneColumn, radiusTwoColumn, massColumn, periodColumn, periapsisColumn, apoapsisColumn;
+    
+    /**
+     * Whether the satellite and planet collide for each grid point of the current block
+     */
+    private final boolean[] collidesColumn;
+    
+    /**
+     * Sweep constructor that takes in the values of the grid along each axis and the view to find collisions for
+     * @param radiiOne   The values of radius one in meters
+     * @param radiiTwo   The values of radius two in meters
+     * @param masses     The values of the planet mass in kg
+     * @param viewWidth  The width in pixels of the view that the collision verdict is found for
+     * @param viewHeight The height in pixels of the view that the collision verdict is found for
+     */
+    Sweep(double[] radiiOne, double[] radiiTwo, double[] masses, int viewWidth, int viewHeight) {
+        this.radiiOne = radiiOne;
+        this.radiiTwo = radiiTwo;
+        this.masses = masses;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        int columnSize = (int) Math.min(BLOCK_SIZE, size());
+        radiusOneColumn = new double[columnSize];
+        radiusTwoColumn = new double[columnSize];
+        massColumn = new double[columnSize];
+        periodColumn = new double[columnSize];
+        periapsisColumn = new double[columnSize];
+        apoapsisColumn = new double[columnSize];
+        collidesColumn = new boolean[columnSize];
+    }
+    
+    /**
+     * Runs a sweep from the command-line options and prints its throughput
+     * @param args The options listed in USAGE
+     */
+    public static void main(String... args) throws IOException {
+        double[] radiiOne = null, radiiTwo = null, masses = null;
+        String format = "csv", out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int viewWidth = DEFAULT_VIEW_WIDTH, viewHeight = DEFAULT_VIEW_HEIGHT;
+        try {
+            for(String arg : args) {
+                int equals = arg.indexOf('=');
+                String name = equals == -1 ? arg : arg.substring(0, equals);
+                String value = equals == -1 ? "" : arg.substring(equals + 1);
+                switch(name) {
+                    case "--radius-one":
+                        radiiOne = parseGrid(value);
+                        break;
+                    case "--radius-two":
+                        radiiTwo = parseGrid(value);
+                        break;
+                    case "--mass":
+                        masses = parseGrid(value);
+                        break;
+                    case "--format":
+                        if(!value.equals("csv") && !value.equals("binary"))
+                            throw new IllegalArgumentException("Unknown format: " + value);
+                        format = value;
+                        break;
+                    case "--out":
+                        out = value;
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--view":
+                        String[] size = value.split("x");
+                        viewWidth = Integer.parseInt(size[0]);
+                        viewHeight = Integer.parseInt(size[1]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if(radiiOne == null || radiiTwo == null || masses == null)
+                throw new IllegalArgumentException("The radius one, radius two and mass grids are all required");
+            checkPositive(radiiOne, "Radius one");
+            checkPositive(radiiTwo, "Radius two");
+            checkPositive(masses, "Mass");
+            if(threads < 1)
+                throw new IllegalArgumentException("The number of threads must be at least 1: " + threads);
+            if(viewWidth < 1 || viewHeight < 1)
+                throw new IllegalArgumentException("The view must be at least 1x1: " + viewWidth + "x" + viewHeight);
+        }
+        catch(IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        
+        Sweep sweep = new Sweep(radiiOne, radiiTwo, masses, viewWidth, viewHeight);
+        ParallelStepper stepper = new ParallelStepper(threads);
+        OutputStream stream = out == null ? System.out : new FileOutputStream(out);
+        long start = System.nanoTime();
+        long computeNanos;
+        try {
+            computeNanos = format.equals("csv") ? sweep.writeCsv(stepper, stream) : sweep.writeBinary(stepper, stream);
+        }
+        finally {
+            stepper.shutdown();
+            if(out != null)
+                stream.close();
+        }
+        double totalNanos = System.nanoTime() - start;
+        
+        //Reported on standard error so that it does not mix with results written to standard output
+        System.err.printf("Evaluated %d orbits on %d threads%n", sweep.size(), stepper.getParallelism());
+        System.err.printf("Compute: %.3f s, %.3e orbits/s%n", computeNanos / 1e9, sweep.size() / (computeNanos / 1e9));
+        System.err.printf("Compute and write: %.3f s, %.3e orbits/s%n", totalNanos / 1e9, sweep.size() / (totalNanos / 1e9));
+    }
+    
+    /**
+     * Parses a grid specification into the values it covers
+     * @param spec A single value, or start:end:count with :log optionally appended
+     * @return The values of the grid along one axis
+     */
+    static double[] parseGrid(String spec) {
+        String[] parts = spec.split(":");
+        if(parts.length == 1)
+            return new double[] {Double.parseDouble(parts[0])};
+        if(parts.length != 3 && !(parts.length == 4 && parts[3].equals("log")))
+            throw new IllegalArgumentException("Grid specifications must be a value or start:end:count[:log]: " + spec);
+        double start = Double.parseDouble(parts[0]);
+        double end = Double.parseDouble(parts[1]);
+        int count = Integer.parseInt(parts[2]);
+        boolean log = parts.length == 4;
+        if(count < 1)
+            throw new IllegalArgumentException("Grid counts must be at least 1: " + spec);
+        if(log && (start <= 0 || end <= 0))
+            throw new IllegalArgumentException("Log grids must have positive ends: " + spec);
+        
+        double[] values = new double[count];
+        for(int i = 0; i < count; ++i) {
+            double fraction = count == 1 ? 0 : i / (double) (count - 1);
+            values[i] = log ? start * Math.pow(end / start, fraction) : start + (end - start) * fraction;
+        }
+        return values;
+    }
+    
+    /**
+     * Throws if any value of a grid is not a positive finite number, which every radius and mass has to be for the orbit to
+     * exist
+     * @param grid The values of the grid along one axis
+     * @param name The name of the axis used in the message
+     * @throws IllegalArgumentException If a value is zero, negative, infinite or NaN
+     */
+    private static void checkPositive(double[] grid, String name) {
+        for(double value : grid) {
+            if(!(value > 0) || Double.isInfinite(value))
+                throw new IllegalArgumentException(name + " values must be positive and finite: " + value);
+        }
+    }
+    
+    /**
+     * Returns the number of grid points
+     * @return The product of the number of values along each axis
+     */
+    long size() {
+        return (long) radiiOne.length * radiiTwo.length * masses.length;
+    }
+    
+    /**
+     * Computes the grid points from first up to but not including first + count into the columns
+     * @param stepper The stepper that splits the block across threads
+     * @param first   The index of the first grid point of the block
+     * @param count   The number of grid points in the block
+     */
+    private void computeBlock(ParallelStepper stepper, long first, int count) {
+        stepper.forEachChunk(count, (start, end) -> {
+            for(int i = start; i < end; ++i)
+                compute(i, first + i);
+        });
+    }
+    
+    /**
+     * Computes one grid point, where radius two changes fastest and the planet mass slowest
+     * @param column The index in the columns to store the results at
+     * @param point  The index of the grid point
+     */
+    private void compute(int column, long point) {
+        double radiusTwo = radiiTwo[(int) (point % radiiTwo.length)];
+        double radiusOne = radiiOne[(int) (point / radiiTwo.length % radiiOne.length)];
+        double planetMass = masses[(int) (point / radiiTwo.length / radiiOne.length)];
+        
+        double radiusMajor = Math.max(radiusOne, radiusTwo);
+        double radiusMinor = radiusOne + radiusTwo - radiusMajor;
+        double focalDistance = Math.sqrt((radiusMajor - radiusMinor) * (radiusMajor + radiusMinor));
+        radiusOneColumn[column] = radiusOne;
+        radiusTwoColumn[column] = radiusTwo;
+        massColumn[column] = planetMass;
+        periodColumn[column] = 2 * Math.PI * Math.sqrt(radiusMajor * radiusMajor * radiusMajor / (Orbit.GRAVITATIONAL_CONSTANT * planetMass));
+        periapsisColumn[column] = radiusMajor - focalDistance;
+        apoapsisColumn[column] = radiusMajor + focalDistance;
+        collidesColumn[column] = Orbit.intersectsPlanet(radiusOne, radiusTwo, viewWidth, viewHeight);
+    }
+    
+    /**
+     * Computes every grid point and writes them as CSV with a header row
+     * @param stepper The stepper that splits each block across threads
+     * @param stream  The stream to write to
+     * @return The time in nanoseconds spent computing, not counting writing
+     */
+    long writeCsv(ParallelStepper stepper, OutputStream stream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.US_ASCII), 1 << 16);
+        writer.write("radius_one,radius_two,planet_mass,period,periapsis,apoapsis,collides\n");
+        StringBuilder line = new StringBuilder(160);
+        long computeNanos = 0;
+        for(long first = 0; first < size(); first += BLOCK_SIZE) {
+            int count = (int) Math.min(BLOCK_SIZE, size() - first);
+            long start = System.nanoTime();
+            computeBlock(stepper, first, count);
+            computeNanos += System.nanoTime() - start;
+            for(int i = 0; i < count; ++i) {
+                line.setLength(0);
+                line.append(radiusOneColumn[i]).append(',').append(radiusTwoColumn[i]).append(',').append(massColumn[i]).append(',');
+                line.append(periodColumn[i]).append(',').append(periapsisColumn[i]).append(',').append(apoapsisColumn[i]).append(',');
+                line.append(collidesColumn[i]).append('\n');
+                writer.append(line);
+            }
+        }
+        writer.flush();
+        return computeNanos;
+    }
+    
+    /**
+     * Computes every grid point and writes them in a binary columnar layout. The file starts with the int magic number, the
+     * int version and the long number of grid points, followed by each block as its int number of grid points and then each
+     * column of the block in turn: radius one, radius two, planet mass, period, periapsis and apoapsis as doubles, and the
+     * collision verdicts as one byte each. Every value is big-endian.
+     * @param stepper The stepper that splits each block across threads
+     * @param stream  The stream to write to
+     * @return The time in nanoseconds spent computing, not counting writing
+     */
+    long writeBinary(ParallelStepper stepper, OutputStream stream) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        data.writeInt(BINARY_MAGIC);
+        data.writeInt(BINARY_VERSION);
+        data.writeLong(size());
+        long computeNanos = 0;
+        for(long first = 0; first < size(); first += BLOCK_SIZE) {
+            int count = (int) Math.min(BLOCK_SIZE, size() - first);
+            long start = System.nanoTime();
+            computeBlock(stepper, first, count);
+            computeNanos += System.nanoTime() - start;
+            data.writeInt(count);
+            for(double[] column : new double[][] {radiusOneColumn, radiusTwoColumn, massColumn, periodColumn, periapsisColumn, apoapsisColumn}) {
+                for(int i = 0; i < count; ++i)
+                    data.writeDouble(column[i]);
+            }
+            for(int i = 0; i < count; ++i)
+                data.writeBoolean(collidesColumn[i]);
+        }
+        data.flush();
+        return computeNanos;
+    }
+    
+}
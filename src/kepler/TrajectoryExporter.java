@@ -0,0 +1,339 @@
+package kepler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams the changing values of a satellite to a CSV or columnar file, batching samples into a pool of direct ByteBuffers
+ * that a background thread writes through a FileChannel so that the thread exporting the samples never waits on the disk
+ *
+ * The columnar file starts with the int magic number, the int version and the long number of samples, which is filled in when
+ * the exporter is closed, followed by each batch as its int number of samples and then each column of the batch in turn as
+ * doubles: time, velocity, transverse velocity, radial velocity, radius and angular velocity. Every value is big-endian.
+ */
+class TrajectoryExporter implements Closeable {
+    /**
+     * The layouts that samples can be written in
+     */
+    enum Format {
+        /**
+         * Text with a header row and one row of comma-separated values per sample
+         */
+        CSV,
+        
+        /**
+         * Binary batches of samples with the values of each column stored together
+         */
+        COLUMNAR
+    }
+    
+    /**
+     * The int at the start of every columnar export file
+     */
+    static final int MAGIC = 0x4B455850;
+    
+    /**
+     * The version of the columnar export file layout
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The position in the columnar file of the number of samples
+     */
+    private static final int COUNT_OFFSET = 8;
+    
+    /**
+     * The row at the start of every CSV export file
+     */
+    private static final String CSV_HEADER = "time,velocity,transverse_velocity,radial_velocity,radius,angular_velocity\n";
+    
+    /**
+     * The number of doubles in each sample
+     */
+    static final int COLUMNS = 6;
+    
+    /**
+     * The number of samples held by each batch
+     */
+    static final int BATCH_SIZE = 1 << 14;
+    
+    /**
+     * The number of batches in the pool, which is how many can be waiting to be written before samples are dropped
+     */
+    private static final int POOL_SIZE = 8;
+    
+    /**
+     * The number of bytes in each batch, which is the int number of samples followed by each column
+     */
+    private static final int BATCH_BYTES = 4 + COLUMNS * BATCH_SIZE * 8;
+    
+    /**
+     * The most bytes that one CSV row can take up, since a double is never written with more than 24 chars
+     */
+    private static final int MAX_ROW_BYTES = COLUMNS * 25;
+    
+    /**
+     * The batch passed to the writing thread to tell it that there are no more batches
+     */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+    
+    /**
+     * The channel of the file being written
+     */
+    private final FileChannel channel;
+    
+    /**
+     * The layout that samples are written in
+     */
+    private final Format format;
+    
+    /**
+     * The batches that are free to be filled and the filled batches that are waiting to be written
+     */
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(POOL_SIZE), filled = new ArrayBlockingQueue<>(POOL_SIZE + 1);
+    
+    /**
+     * The thread that writes the filled batches
+     */
+    private final Thread writer;
+    
+    /**
+     * The batch currently being filled, or null if every batch was waiting to be written when the last one filled up
+     */
+    private ByteBuffer batch;
+    
+    /**
+     * The number of samples in the batch currently being filled
+     */
+    private int batchCount = 0;
+    
+    /**
+     * The number of samples that have been exported and the number that were dropped because every batch was full
+     */
+    private long count = 0, dropped = 0;
+    
+    /**
+     * Whether the exporter has been closed, after which every sample is turned away
+     */
+    private boolean closed = false;
+    
+    /**
+     * The first error that the writing thread ran into, which is thrown when the exporter is closed
+     */
+    private volatile IOException error;
+    
+    /**
+     * TrajectoryExporter constructor that creates or replaces the file and starts the writing thread
+     * @param path   The file to write to
+     * @param format The layout to write samples in
+     */
+    TrajectoryExporter(Path path, Format format) throws IOException {
+        this.format = format;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        for(int i = 0; i < POOL_SIZE; ++i)
+            free.add(ByteBuffer.allocateDirect(BATCH_BYTES));
+        batch = free.poll();
+        
+        //Writes the header of the file
+        ByteBuffer header = ByteBuffer.allocate(Math.max(16, CSV_HEADER.length()));
+        if(format == Format.CSV) {
+            for(int i = 0; i < CSV_HEADER.length(); ++i)
+                header.put((byte) CSV_HEADER.charAt(i));
+        }
+        else
+            header.putInt(MAGIC).putInt(VERSION).putLong(0);
+        header.flip();
+        while(header.hasRemaining())
+            channel.write(header);
+        
+        writer = new Thread(this::write, "Trajectory exporter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /**
+     * Adds a sample to the current batch, handing the batch to the writing thread once it is full. This never waits, so if
+     * every batch is still waiting to be written the sample is dropped instead. It is synchronized with close since the two
+     * can be called from different threads when the program closes, which costs next to nothing while the lock is uncontended.
+     * @param time               The simulated time in seconds
+     * @param velocity           The velocity of the satellite
+     * @param transverseVelocity The component of the velocity perpendicular to the radius
+     * @param radialVelocity     The component of the velocity parallel to the radius
+     * @param radius             The distance in meters between the planet and the satellite
+     * @param angularVelocity    The angular velocity of the satellite in radians/second
+     * @return Whether the sample was added, which is false if it was dropped or the exporter is closed
+     */
+    synchronized boolean export(double time, double velocity, double transverseVelocity, double radialVelocity, double radius, double angularVelocity) {
+        if(closed)
+            return false;
+        if(batch == null && (batch = free.poll()) == null) {
+            ++dropped;
+            return false;
+        }
+        int position = 4 + batchCount * 8;
+        batch.putDouble(position, time);
+        batch.putDouble(position + BATCH_SIZE * 8, velocity);
+        batch.putDouble(position + 2 * BATCH_SIZE * 8, transverseVelocity);
+        batch.putDouble(position + 3 * BATCH_SIZE * 8, radialVelocity);
+        batch.putDouble(position + 4 * BATCH_SIZE * 8, radius);
+        batch.putDouble(position + 5 * BATCH_SIZE * 8, angularVelocity);
+        ++count;
+        if(++batchCount == BATCH_SIZE)
+            submit();
+        return true;
+    }
+    
+    /**
+     * Hands the current batch to the writing thread
+     */
+    private void submit() {
+        batch.putInt(0, batchCount);
+        filled.add(batch);
+        batch = null;
+        batchCount = 0;
+    }
+    
+    /**
+     * Writes filled batches until the exporter is closed, returning each batch to the pool once it has been written
+     */
+    private void write() {
+        ByteBuffer text = format == Format.CSV ? ByteBuffer.allocateDirect(1 << 16) : null;
+        StringBuilder row = new StringBuilder(MAX_ROW_BYTES);
+        try {
+            for(ByteBuffer next = filled.take(); next != END; next = filled.take()) {
+                try {
+                    if(error == null) {
+                        if(format == Format.CSV)
+                            writeCsv(next, text, row);
+                        else
+                            writeColumnar(next);
+                    }
+                }
+                catch(IOException e) {
+                    error = e;
+                }
+                free.add(next);
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Writes a batch's samples as CSV rows, filling the text buffer with rows and writing it whenever it cannot hold another
+     * @param batch The batch to write
+     * @param text  The buffer that rows are written into before being written to the file
+     * @param row   The builder that each row is formatted in
+     */
+    private void writeCsv(ByteBuffer batch, ByteBuffer text, StringBuilder row) throws IOException {
+        int samples = batch.getInt(0);
+        for(int i = 0; i < samples; ++i) {
+            row.setLength(0);
+            for(int column = 0; column < COLUMNS; ++column) {
+                if(column != 0)
+                    row.append(',');
+                row.append(batch.getDouble(4 + (column * BATCH_SIZE + i) * 8));
+            }
+            row.append('\n');
+            if(text.remaining() < MAX_ROW_BYTES)
+                flush(text);
+            for(int j = 0; j < row.length(); ++j)
+                text.put((byte) row.charAt(j));
+        }
+        flush(text);
+    }
+    
+    /**
+     * Writes a batch's number of samples followed by the filled part of each of its columns
+     * @param batch The batch to write
+     */
+    private void writeColumnar(ByteBuffer batch) throws IOException {
+        int samples = batch.getInt(0);
+        batch.limit(4).position(0);
+        writeFully(batch);
+        for(int column = 0; column < COLUMNS; ++column) {
+            batch.limit(4 + (column * BATCH_SIZE + samples) * 8).position(4 + column * BATCH_SIZE * 8);
+            writeFully(batch);
+        }
+        batch.clear();
+    }
+    
+    /**
+     * Writes everything in a buffer to the file and then clears the buffer
+     * @param buffer The buffer to write from its start to its position
+     */
+    private void flush(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+    
+    /**
+     * Writes the remaining bytes of a buffer to the file
+     * @param buffer The buffer to write
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+    }
+    
+    /**
+     * Returns the number of samples that have been exported, not counting dropped samples
+     * @return The number of samples
+     */
+    synchronized long size() {
+        return count;
+    }
+    
+    /**
+     * Returns the number of samples that were dropped because the writing thread could not keep up
+     * @return The number of dropped samples
+     */
+    synchronized long getDropped() {
+        return dropped;
+    }
+    
+    /**
+     * Turns away any later samples, writes the remaining ones, waits for the writing thread to finish and closes the file,
+     * reporting how many samples were dropped if any were
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized(this) {
+            if(closed)
+                return;
+            closed = true;
+            if(batch != null && batchCount != 0)
+                submit();
+            filled.add(END);
+            if(dropped != 0)
+                System.err.println("Trajectory exporter dropped " + dropped + " of " + (count + dropped) + " samples because the disk could not keep up");
+        }
+        try {
+            writer.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if(error == null && format == Format.COLUMNAR) {
+                ByteBuffer header = ByteBuffer.allocate(8).putLong(0, count);
+                while(header.hasRemaining())
+                    channel.write(header, COUNT_OFFSET + header.position());
+            }
+        }
+        finally {
+            channel.close();
+        }
+        if(error != null)
+            throw error;
+    }
+    
+}
@@ -0,0 +1,185 @@
+package kepler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends a satellite's state to a memory-mapped file as fixed-width records in order of time, so that recording costs no
+ * more than a few writes to memory and a run can later be replayed or analyzed with TrajectoryReplayer
+ *
+ * The file starts with a header holding the int magic number, the int version, the long number of records and the semi-major
+ * axis, semi-minor axis and planet mass of the orbit as doubles. Each record after it holds the time, orbitAngle, radius,
+ * radial velocity and transverse velocity as doubles. The number of records is updated with every record, so the file can be
+ * read even if the program stops without closing the recorder.
+ *
+ * The records are mapped one chunk at a time, so growing the file only maps the next chunk instead of remapping the whole
+ * file. Recording and closing are synchronized since the recorder can be closed by another thread when the program closes.
+ */
+class TrajectoryRecorder implements Closeable {
+    /**
+     * The int at the start of every trajectory file
+     */
+    static final int MAGIC = 0x4B545241;
+    
+    /**
+     * The version of the trajectory file layout
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The positions in the header of the number of records and the orbit's values
+     */
+    static final int COUNT_OFFSET = 8, RADIUS_MAJOR_OFFSET = 16, RADIUS_MINOR_OFFSET = 24, PLANET_MASS_OFFSET = 32;
+    
+    /**
+     * The number of bytes before the first record
+     */
+    static final int HEADER_SIZE = 40;
+    
+    /**
+     * The positions within a record of each of its values
+     */
+    static final int TIME_OFFSET = 0, ANGLE_OFFSET = 8, RADIUS_OFFSET = 16, RADIAL_VELOCITY_OFFSET = 24, TRANSVERSE_VELOCITY_OFFSET = 32;
+    
+    /**
+     * The number of bytes that each record takes up
+     */
+    static final int RECORD_SIZE = 40;
+    
+    /**
+     * The number of records in each mapped chunk of the file, which is about a minute at 1 kHz
+     */
+    private static final int CHUNK_RECORDS = 1 << 16;
+    
+    /**
+     * The largest number of records that TrajectoryReplayer can fit in one mapping of the file
+     */
+    private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    
+    /**
+     * The channel of the file being recorded to
+     */
+    private final FileChannel channel;
+    
+    /**
+     * The mapping of the header
+     */
+    private MappedByteBuffer header;
+    
+    /**
+     * The mapping of the chunk of records currently being written, which is replaced by the next chunk when it fills up
+     */
+    private MappedByteBuffer chunk;
+    
+    /**
+     * The index of the first record in the current chunk
+     */
+    private long chunkStart = 0;
+    
+    /**
+     * The number of records that have been written
+     */
+    private long count = 0;
+    
+    /**
+     * Whether the recorder has been closed, after which records are ignored
+     */
+    private boolean closed = false;
+    
+    /**
+     * The time of the last record, which the next record cannot come before
+     */
+    private double lastTime = Double.NEGATIVE_INFINITY;
+    
+    /**
+     * TrajectoryRecorder constructor that creates or replaces the file and writes the header for the given orbit
+     * @param path     The file to record to
+     * @param elements The values of the orbit being recorded
+     */
+    TrajectoryRecorder(Path path, OrbitElements elements) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putLong(COUNT_OFFSET, 0);
+        header.putDouble(RADIUS_MAJOR_OFFSET, elements.getRadiusMajor());
+        header.putDouble(RADIUS_MINOR_OFFSET, elements.getRadiusMinor());
+        header.putDouble(PLANET_MASS_OFFSET, elements.getPlanetMass());
+        mapChunk(0);
+    }
+    
+    /**
+     * Maps the chunk starting at the given record, growing the file to hold it. The previous chunk is not forced to the disk
+     * here since that would stall the frame that records into a new chunk, so its pages are written by the OS and by close.
+     * @param start The index of the first record of the chunk
+     */
+    private void mapChunk(long start) throws IOException {
+        long records = Math.min(CHUNK_RECORDS, MAX_RECORDS - start);
+        chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + start * RECORD_SIZE, records * RECORD_SIZE);
+        chunkStart = start;
+    }
+    
+    /**
+     * Appends a record of the satellite's state
+     * @param time               The simulated time in seconds since the recording started, which cannot be before the last record's
+     * @param angle              The orbitAngle of the satellite relative to its periapsis
+     * @param radius             The distance in meters between the planet and the satellite
+     * @param radialVelocity     The component of the velocity parallel to the radius
+     * @param transverseVelocity The component of the velocity perpendicular to the radius
+     */
+    synchronized void record(double time, double angle, double radius, double radialVelocity, double transverseVelocity) throws IOException {
+        if(closed)
+            return;
+        if(time < lastTime)
+            throw new IllegalArgumentException("Records must be in order of time");
+        if((count - chunkStart) * RECORD_SIZE == chunk.capacity()) {
+            if(count == MAX_RECORDS)
+                throw new IOException("The trajectory file cannot hold more than " + MAX_RECORDS + " records");
+            mapChunk(count);
+        }
+        int position = (int) (count - chunkStart) * RECORD_SIZE;
+        chunk.putDouble(position + TIME_OFFSET, time);
+        chunk.putDouble(position + ANGLE_OFFSET, angle);
+        chunk.putDouble(position + RADIUS_OFFSET, radius);
+        chunk.putDouble(position + RADIAL_VELOCITY_OFFSET, radialVelocity);
+        chunk.putDouble(position + TRANSVERSE_VELOCITY_OFFSET, transverseVelocity);
+        header.putLong(COUNT_OFFSET, ++count);
+        lastTime = time;
+    }
+    
+    /**
+     * Returns the number of records that have been written
+     * @return The number of records
+     */
+    synchronized long size() {
+        return count;
+    }
+    
+    /**
+     * Writes the recorded data to the disk, cuts off the room that was mapped past the last record and closes the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+        try {
+            chunk.force();
+            header.force();
+            
+            //Also writes the earlier chunks, which were left for the OS to write when the next chunk was mapped
+            channel.force(false);
+            chunk = null;
+            header = null;
+            channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+        }
+        finally {
+            channel.close();
+        }
+    }
+    
+}
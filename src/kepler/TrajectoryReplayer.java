@@ -0,0 +1,162 @@
+package kepler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a trajectory file written by TrajectoryRecorder through a read-only memory mapping, finding the record at any time
+ * with a binary search over the records' times
+ */
+class TrajectoryReplayer implements Closeable {
+    /**
+     * The channel of the file being replayed
+     */
+    private final FileChannel channel;
+    
+    /**
+     * The mapping of the header and every record
+     */
+    private final MappedByteBuffer buffer;
+    
+    /**
+     * The number of records in the file
+     */
+    private final int count;
+    
+    /**
+     * TrajectoryReplayer constructor that maps the file and checks its header
+     * @param path The trajectory file to replay
+     */
+    TrajectoryReplayer(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        if(channel.size() < TrajectoryRecorder.HEADER_SIZE)
+            throw new IOException(path + " is too small to be a trajectory file");
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TrajectoryRecorder.HEADER_SIZE);
+        if(header.getInt(0) != TrajectoryRecorder.MAGIC || header.getInt(4) != TrajectoryRecorder.VERSION)
+            throw new IOException(path + " is not a trajectory file");
+        
+        //Only the records that were completely written are counted
+        long recorded = Math.min(header.getLong(TrajectoryRecorder.COUNT_OFFSET), (channel.size() - TrajectoryRecorder.HEADER_SIZE) / TrajectoryRecorder.RECORD_SIZE);
+        if(recorded == 0)
+            throw new IOException(path + " does not have any records");
+        count = (int) recorded;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, TrajectoryRecorder.HEADER_SIZE + (long) count * TrajectoryRecorder.RECORD_SIZE);
+    }
+    
+    /**
+     * Returns the number of records in the file
+     * @return The number of records
+     */
+    int size() {
+        return count;
+    }
+    
+    /**
+     * Returns the record at the given time, which is the last record at or before it, in O(log n)
+     * @param time The time in seconds since the recording started
+     * @return The index of the record, or 0 if the time is before the first record
+     */
+    int seek(double time) {
+        int low = 0, high = count - 1;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(getTime(middle) <= time)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+    
+    /**
+     * Returns the byte position of a value of a record
+     * @param record The index of the record
+     * @param offset The position of the value within the record
+     * @return The position of the value in the file
+     */
+    private static int position(int record, int offset) {
+        return TrajectoryRecorder.HEADER_SIZE + record * TrajectoryRecorder.RECORD_SIZE + offset;
+    }
+    
+    /**
+     * Returns the time of a record
+     * @param record The index of the record
+     * @return The time in seconds since the recording started
+     */
+    double getTime(int record) {
+        return buffer.getDouble(position(record, TrajectoryRecorder.TIME_OFFSET));
+    }
+    
+    /**
+     * Returns the orbitAngle of the satellite in a record
+     * @param record The index of the record
+     * @return The orbitAngle relative to the periapsis
+     */
+    double getAngle(int record) {
+        return buffer.getDouble(position(record, TrajectoryRecorder.ANGLE_OFFSET));
+    }
+    
+    /**
+     * Returns the distance between the planet and the satellite in a record
+     * @param record The index of the record
+     * @return The radius in meters
+     */
+    double getRadius(int record) {
+        return buffer.getDouble(position(record, TrajectoryRecorder.RADIUS_OFFSET));
+    }
+    
+    /**
+     * Returns the component of the satellite's velocity parallel to the radius in a record
+     * @param record The index of the record
+     * @return The radial velocity
+     */
+    double getRadialVelocity(int record) {
+        return buffer.getDouble(position(record, TrajectoryRecorder.RADIAL_VELOCITY_OFFSET));
+    }
+    
+    /**
+     * Returns the component of the satellite's velocity perpendicular to the radius in a record
+     * @param record The index of the record
+     * @return The transverse velocity
+     */
+    double getTransverseVelocity(int record) {
+        return buffer.getDouble(position(record, TrajectoryRecorder.TRANSVERSE_VELOCITY_OFFSET));
+    }
+    
+    /**
+     * Returns the semi-major axis of the recorded orbit
+     * @return The semi-major axis in meters
+     */
+    double getRadiusMajor() {
+        return buffer.getDouble(TrajectoryRecorder.RADIUS_MAJOR_OFFSET);
+    }
+    
+    /**
+     * Returns the semi-minor axis of the recorded orbit
+     * @return The semi-minor axis in meters
+     */
+    double getRadiusMinor() {
+        return buffer.getDouble(TrajectoryRecorder.RADIUS_MINOR_OFFSET);
+    }
+    
+    /**
+     * Returns the mass of the planet in the recorded orbit
+     * @return The mass in kg of the planet
+     */
+    double getPlanetMass() {
+        return buffer.getDouble(TrajectoryRecorder.PLANET_MASS_OFFSET);
+    }
+    
+    /**
+     * Closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+}